@@ -0,0 +1,162 @@
+package com.keenant.flow.benchmarks;
+
+import static com.keenant.flow.Flow.*;
+import static com.keenant.flow.benchmarks.MemoryDatabase.*;
+
+import com.keenant.flow.Cursor;
+import com.keenant.flow.DatabaseContext;
+import com.keenant.flow.EagerCursor;
+import com.keenant.flow.QueryPart;
+import com.keenant.flow.RowMapper;
+import com.keenant.flow.SQLDialect;
+import com.keenant.flow.jdbc.FetchConfig;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures reading every row of a table through a lazy cursor, which reads straight from the
+ * result set, and through an eager cursor, which SQLite populates up front
+ * ({@code SafeEagerCursor}). Plain JDBC is included as the floor. The mapped variant builds an
+ * object per row with {@link RowMapper#of(Class)}.
+ *
+ * The read ahead cursor copies records on another thread. An in-memory database has no round trips
+ * to overlap, so it measures the cost of the hand-off rather than its benefit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CursorBenchmark {
+
+  @Param({"100", "10000"})
+  public int rows;
+
+  private MemoryDatabase memory;
+  private DatabaseContext database;
+  private QueryPart query;
+  private FetchConfig readAhead;
+
+  @Setup
+  public void setup() {
+    memory = new MemoryDatabase();
+    memory.populate(rows);
+    database = memory.getDatabase();
+    query = select(ID, NAME, AGE, SCORE).from(USERS).build(SQLDialect.SQLITE);
+    readAhead = FetchConfig.builder().streaming(true).readAhead(256).build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    memory.close();
+  }
+
+  @Benchmark
+  public void lazy(Blackhole blackhole) {
+    try (Cursor cursor = database.fetchLazy(query)) {
+      while (cursor.moveNext()) {
+        consume(cursor, blackhole);
+      }
+    }
+  }
+
+  @Benchmark
+  public void lazyReadAhead(Blackhole blackhole) {
+    try (Cursor cursor = database.fetchLazy(readAhead, query)) {
+      while (cursor.moveNext()) {
+        consume(cursor, blackhole);
+      }
+    }
+  }
+
+  @Benchmark
+  public void eager(Blackhole blackhole) {
+    try (EagerCursor cursor = database.fetch(query)) {
+      while (cursor.moveNext()) {
+        consume(cursor, blackhole);
+      }
+    }
+  }
+
+  @Benchmark
+  public void lazyPrimitive(Blackhole blackhole) {
+    try (Cursor cursor = database.fetchLazy(query)) {
+      while (cursor.moveNext()) {
+        consumeValues(cursor, blackhole);
+      }
+    }
+  }
+
+  @Benchmark
+  public void eagerPrimitive(Blackhole blackhole) {
+    try (EagerCursor cursor = database.fetch(query)) {
+      while (cursor.moveNext()) {
+        consumeValues(cursor, blackhole);
+      }
+    }
+  }
+
+  @Benchmark
+  public void lazyMapped(Blackhole blackhole) {
+    try (Cursor cursor = database.fetchLazy(query)) {
+      cursor.stream(USER_MAPPER).forEach(blackhole::consume);
+    }
+  }
+
+  @Benchmark
+  public void lazyStream(Blackhole blackhole) {
+    database.fetchLazy(query).stream().forEach(cursor -> consume(cursor, blackhole));
+  }
+
+  @Benchmark
+  public void jdbc(Blackhole blackhole) throws SQLException {
+    try (PreparedStatement statement = memory.getConnection().prepareStatement(query.getSql());
+        ResultSet resultSet = statement.executeQuery()) {
+      while (resultSet.next()) {
+        blackhole.consume(resultSet.getInt(1));
+        blackhole.consume(resultSet.getString(2));
+        blackhole.consume(resultSet.getInt(3));
+        blackhole.consume(resultSet.getDouble(4));
+      }
+    }
+  }
+
+  public static class User {
+    public int id;
+    public String name;
+    public int age;
+    public double score;
+  }
+
+  private static final RowMapper<User> USER_MAPPER = RowMapper.of(User.class);
+
+  private static void consume(Cursor cursor, Blackhole blackhole) {
+    blackhole.consume(cursor.getNonNullInt(1));
+    blackhole.consume(cursor.getNonNullString(2));
+    blackhole.consume(cursor.getNonNullInt(3));
+    blackhole.consume(cursor.getNonNullDouble(4));
+  }
+
+  private static void consumeValues(Cursor cursor, Blackhole blackhole) {
+    blackhole.consume(cursor.getIntValue(1));
+    blackhole.consume(cursor.getNonNullString(2));
+    blackhole.consume(cursor.getIntValue(3));
+    blackhole.consume(cursor.getDoubleValue(4));
+  }
+}
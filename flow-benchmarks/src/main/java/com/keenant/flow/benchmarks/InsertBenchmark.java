@@ -0,0 +1,100 @@
+package com.keenant.flow.benchmarks;
+
+import static com.keenant.flow.benchmarks.MemoryDatabase.*;
+
+import com.keenant.flow.DatabaseContext;
+import com.keenant.flow.InsertScoped;
+import com.keenant.flow.Result;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures inserting a number of rows with one statement per row, with a single multi-row
+ * statement, and with a JDBC batch of single row statements. Each invocation inserts
+ * {@link #rows} rows, so compare scores at the same row count.
+ *
+ * The rows stay under SQLite's limit of 999 parameters per statement (3 per row).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InsertBenchmark {
+
+  @Param({"10", "300"})
+  public int rows;
+
+  private MemoryDatabase memory;
+  private DatabaseContext database;
+
+  @Setup
+  public void setup() {
+    memory = new MemoryDatabase();
+    database = memory.getDatabase();
+  }
+
+  @TearDown(Level.Iteration)
+  public void truncate() {
+    memory.truncate();
+  }
+
+  @TearDown
+  public void tearDown() {
+    memory.close();
+  }
+
+  @Benchmark
+  public void singleRow() {
+    for (int i = 0; i < rows; i++) {
+      InsertScoped insert = database.insertInto(USERS)
+          .with(NAME, "user" + i)
+          .with(AGE, i % 100)
+          .with(SCORE, i * 0.5);
+
+      try (Result result = insert.execute()) {
+        // Nothing to read
+      }
+    }
+  }
+
+  @Benchmark
+  public void multiRow() {
+    try (Result result = records().execute()) {
+      // Nothing to read
+    }
+  }
+
+  @Benchmark
+  public void batch() {
+    try (Result result = records().executeBatch()) {
+      // Nothing to read
+    }
+  }
+
+  private InsertScoped records() {
+    InsertScoped insert = database.insertInto(USERS);
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        insert.nextRecord();
+      }
+      insert.with(NAME, "user" + i)
+          .with(AGE, i % 100)
+          .with(SCORE, i * 0.5);
+    }
+    return insert;
+  }
+}
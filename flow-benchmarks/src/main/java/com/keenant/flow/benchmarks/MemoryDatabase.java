@@ -0,0 +1,95 @@
+package com.keenant.flow.benchmarks;
+
+import static com.keenant.flow.Flow.*;
+
+import com.keenant.flow.Column;
+import com.keenant.flow.Connector;
+import com.keenant.flow.DatabaseContext;
+import com.keenant.flow.SQLDialect;
+import com.keenant.flow.exception.DatabaseException;
+import com.keenant.flow.exp.FieldExp;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * An in-memory SQLite database holding a single {@code users} table.
+ *
+ * An in-memory database only lives as long as its connection, so every query shares the one
+ * connection rather than opening a new (empty) database each time.
+ */
+class MemoryDatabase implements AutoCloseable {
+
+  static final FieldExp USERS = field("users");
+  static final Column<Integer> ID = column(USERS, "id");
+  static final Column<String> NAME = column(USERS, "name");
+  static final Column<Integer> AGE = column(USERS, "age");
+  static final Column<Double> SCORE = column(USERS, "score");
+
+  private final Connection connection;
+  private final DatabaseContext database;
+
+  MemoryDatabase() {
+    try {
+      connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+      try (Statement statement = connection.createStatement()) {
+        statement.executeUpdate("CREATE TABLE users ("
+            + "id INTEGER PRIMARY KEY, name TEXT NOT NULL, age INTEGER NOT NULL, score REAL)");
+      }
+    } catch (SQLException e) {
+      throw new DatabaseException(e);
+    }
+
+    Connector connector = Connector.of(() -> connection, ignored -> { }, () -> { });
+    database = database(SQLDialect.SQLITE, connector);
+  }
+
+  DatabaseContext getDatabase() {
+    return database;
+  }
+
+  Connection getConnection() {
+    return connection;
+  }
+
+  /**
+   * Fill the users table with generated rows.
+   *
+   * @param rows the number of rows
+   */
+  void populate(int rows) {
+    try (Statement statement = connection.createStatement()) {
+      connection.setAutoCommit(false);
+      for (int i = 0; i < rows; i++) {
+        statement.addBatch("INSERT INTO users (name, age, score) VALUES "
+            + "('user" + i + "', " + (i % 100) + ", " + (i * 0.5) + ")");
+      }
+      statement.executeBatch();
+      connection.commit();
+      connection.setAutoCommit(true);
+    } catch (SQLException e) {
+      throw new DatabaseException(e);
+    }
+  }
+
+  /**
+   * Remove every row from the users table.
+   */
+  void truncate() {
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate("DELETE FROM users");
+    } catch (SQLException e) {
+      throw new DatabaseException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      throw new DatabaseException(e);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.keenant.flow.benchmarks;
+
+import static com.keenant.flow.Flow.*;
+
+import com.keenant.flow.Column;
+import com.keenant.flow.CompiledQuery;
+import com.keenant.flow.QueryPart;
+import com.keenant.flow.SQLDialect;
+import com.keenant.flow.Select;
+import com.keenant.flow.exp.AliasExp;
+import com.keenant.flow.exp.FieldExp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of rendering a moderately complex select to SQL.
+ *
+ * Run with {@code java -jar flow-benchmarks/target/benchmarks.jar QueryBuildBenchmark -prof gc}
+ * to see the bytes allocated per built query ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBuildBenchmark {
+
+  private static final FieldExp COURSES = field("courses");
+  private static final Column<String> COURSES_UUID = column(COURSES, "uuid");
+  private static final Column<String> COURSES_NAME = column(COURSES, "name");
+
+  private static final FieldExp OFFERINGS = field("course_offerings");
+  private static final Column<String> OFFERINGS_UUID = column(OFFERINGS, "uuid");
+  private static final Column<String> OFFERINGS_COURSE_UUID = column(OFFERINGS, "course_uuid");
+  private static final Column<String> OFFERINGS_NAME = column(OFFERINGS, "name");
+  private static final Column<Integer> OFFERINGS_TERM = column(OFFERINGS, "term");
+
+  private static final FieldExp SECTIONS = field("sections");
+  private static final Column<String> SECTIONS_OFFERING_UUID = column(SECTIONS, "course_offering_uuid");
+  private static final Column<Integer> SECTIONS_NUMBER = column(SECTIONS, "number");
+
+  private Select select;
+  private CompiledQuery compiled;
+  private StringBuilder sql;
+  private List<Object> params;
+
+  @Setup
+  public void setup() {
+    AliasExp sectionCount = alias("section_count");
+
+    select = select(COURSES_UUID, max(OFFERINGS_NAME), count(SECTIONS_NUMBER).as(sectionCount))
+        .from(COURSES)
+        .join(OFFERINGS.on(OFFERINGS_COURSE_UUID.eq(COURSES_UUID)))
+        .join(SECTIONS.on(SECTIONS_OFFERING_UUID.eq(OFFERINGS_UUID)))
+        .where(OFFERINGS_TERM.gte(1072).and(COURSES_NAME.like(slot("name"))))
+        .groupBy(COURSES_UUID)
+        .having(sectionCount.gt(10))
+        .order(orderDesc(sectionCount));
+
+    compiled = select.compile(SQLDialect.SQLITE);
+    sql = new StringBuilder(256);
+    params = new ArrayList<>();
+  }
+
+  /**
+   * Render into a fresh builder, as {@link Select#build(SQLDialect)} does for every execution.
+   */
+  @Benchmark
+  public QueryPart build() {
+    return select.build(SQLDialect.SQLITE);
+  }
+
+  /**
+   * Render into a builder and parameter list that are re-used between queries.
+   */
+  @Benchmark
+  public void buildInto(Blackhole blackhole) {
+    sql.setLength(0);
+    params.clear();
+    select.build(SQLDialect.SQLITE, sql, params);
+    blackhole.consume(sql);
+    blackhole.consume(params);
+  }
+
+  /**
+   * Skip rendering altogether by binding values to a query compiled ahead of time.
+   */
+  @Benchmark
+  public QueryPart bind() {
+    return compiled.bind("%Calculus%");
+  }
+}
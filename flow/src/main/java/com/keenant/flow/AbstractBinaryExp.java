@@ -1,6 +1,5 @@
 package com.keenant.flow;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -15,19 +14,27 @@ public abstract class AbstractBinaryExp extends AbstractExp {
     this.child2 = child2;
   }
 
+  /**
+   * @param dialect the SQL dialect to use
+   * @return the SQL of this expression, with two %s where the children go
+   */
   protected abstract String getSqlFormat(SQLDialect dialect);
 
   @Override
   public QueryPart build(SQLDialect dialect) {
-    QueryPart child1Part = child1.build(dialect);
-    QueryPart child2Part = child2.build(dialect);
-
-    String sql = String.format(getSqlFormat(dialect), child1Part.getSql(), child2Part.getSql());
-
-    List<Object> params = new ArrayList<>();
-    params.addAll(child1Part.getParams());
-    params.addAll(child2Part.getParams());
+    return QueryPart.of(this, dialect);
+  }
 
-    return new QueryPart(sql, params);
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    String format = getSqlFormat(dialect);
+    int slot1 = format.indexOf("%s");
+    int slot2 = format.indexOf("%s", slot1 + 2);
+
+    sql.append(format, 0, slot1);
+    child1.build(dialect, sql, params);
+    sql.append(format, slot1 + 2, slot2);
+    child2.build(dialect, sql, params);
+    sql.append(format, slot2 + 2, format.length());
   }
 }
@@ -1,6 +1,5 @@
 package com.keenant.flow;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public abstract class AbstractBinaryFilter extends AbstractFilter {
@@ -12,17 +11,27 @@ public abstract class AbstractBinaryFilter extends AbstractFilter {
     this.filter2 = filter2;
   }
 
+  /**
+   * @param dialect the SQL dialect to use
+   * @return the SQL of this filter, with two %s where the children go
+   */
   protected abstract String getSqlFormat(SQLDialect dialect);
 
   @Override
   public QueryPart build(SQLDialect dialect) {
-    QueryPart part1 = filter1.build(dialect);
-    QueryPart part2 = filter2.build(dialect);
+    return QueryPart.of(this, dialect);
+  }
+
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    String format = getSqlFormat(dialect);
+    int slot1 = format.indexOf("%s");
+    int slot2 = format.indexOf("%s", slot1 + 2);
 
-    String sql = String.format(getSqlFormat(dialect), part1.getSql(), part2.getSql());
-    List<Object> params = new ArrayList<>();
-    params.addAll(part1.getParams());
-    params.addAll(part2.getParams());
-    return new QueryPart(sql, params);
+    sql.append(format, 0, slot1);
+    filter1.build(dialect, sql, params);
+    sql.append(format, slot1 + 2, slot2);
+    filter2.build(dialect, sql, params);
+    sql.append(format, slot2 + 2, format.length());
   }
 }
@@ -5,6 +5,7 @@ import com.keenant.flow.exp.functions.LowerExp;
 import com.keenant.flow.filter.CompareFilter;
 import com.keenant.flow.filter.ExpFilter;
 import com.keenant.flow.filter.NotFilter;
+import com.keenant.flow.filter.NullFilter;
 
 public abstract class AbstractExp implements Exp {
   @Override
@@ -17,6 +18,16 @@ public abstract class AbstractExp implements Exp {
     return new NotFilter(filter());
   }
 
+  @Override
+  public Filter isNull() {
+    return new NullFilter(filter(), false);
+  }
+
+  @Override
+  public Filter isNotNull() {
+    return new NullFilter(filter(), true);
+  }
+
   @Override
   public Filter in(Exp other) {
     return new CompareFilter(this, other, Comparator.IN);
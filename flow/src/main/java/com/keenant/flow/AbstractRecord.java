@@ -10,17 +10,46 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 
 public abstract class AbstractRecord implements Record {
+  private boolean wasNull;
+
+  @Override
+  public int getFieldCount() {
+    int count = 0;
+    while (hasField(count + 1)) {
+      count++;
+    }
+    return count;
+  }
+
   @Override
   public Map<Integer, Object> toIndexMap() {
-    Map<Integer, Object> result = new LinkedHashMap<>(); // preserve insertion order
-    int current = 1;
-    while (hasField(current)) {
-      result.put(current, get(current).orElse(null));
-      current++;
+    Object[] values = toArray();
+    Map<Integer, Object> result = new LinkedHashMap<>(values.length * 4 / 3 + 1); // preserve insertion order
+    for (int i = 0; i < values.length; i++) {
+      result.put(i + 1, values[i]);
+    }
+    return result;
+  }
+
+  @Override
+  public Map<String, Object> toLabelMap() {
+    Object[] values = toArray();
+    Map<String, Object> result = new LinkedHashMap<>(values.length * 4 / 3 + 1); // preserve insertion order
+    for (int i = 0; i < values.length; i++) {
+      result.put(getFieldLabel(i + 1), values[i]);
     }
     return result;
   }
 
+  @Override
+  public Object[] toArray() {
+    Object[] values = new Object[getFieldCount()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = get(i + 1).orElse(null);
+    }
+    return values;
+  }
+
   @Override
   public <T, U> Optional<U> get(int field, Transformer<T, U> transformer)
       throws NoSuchElementException, ClassCastException {
@@ -199,6 +228,47 @@ public abstract class AbstractRecord implements Record {
     return getNonNullLong(getFieldIndex(label));
   }
 
+  @Override
+  public int getIntValue(int index) throws NoSuchElementException, ClassCastException {
+    return Numbers.intValue(getValue(index));
+  }
+
+  @Override
+  public int getIntValue(String label) throws NoSuchElementException, ClassCastException {
+    return getIntValue(getFieldIndex(label));
+  }
+
+  @Override
+  public long getLongValue(int index) throws NoSuchElementException, ClassCastException {
+    return Numbers.longValue(getValue(index));
+  }
+
+  @Override
+  public long getLongValue(String label) throws NoSuchElementException, ClassCastException {
+    return getLongValue(getFieldIndex(label));
+  }
+
+  @Override
+  public double getDoubleValue(int index) throws NoSuchElementException, ClassCastException {
+    return Numbers.doubleValue(getValue(index));
+  }
+
+  @Override
+  public double getDoubleValue(String label) throws NoSuchElementException, ClassCastException {
+    return getDoubleValue(getFieldIndex(label));
+  }
+
+  @Override
+  public boolean wasNull() {
+    return wasNull;
+  }
+
+  private Object getValue(int index) throws NoSuchElementException {
+    Object value = get(index).orElse(null);
+    wasNull = value == null;
+    return value;
+  }
+
   @Override
   public Optional<Boolean> getBoolean(int index) throws NoSuchElementException, ClassCastException {
     return get(index).map(obj -> (Boolean) obj);
@@ -1,5 +1,7 @@
 package com.keenant.flow;
 
+import java.util.List;
+
 /**
  * An expression that takes one parameter.
  */
@@ -10,14 +12,24 @@ public abstract class AbstractUnaryExp extends AbstractExp {
     this.child = child;
   }
 
+  /**
+   * @param dialect the SQL dialect to use
+   * @return the SQL of this expression, with a single %s where the child goes
+   */
   protected abstract String getSqlFormat(SQLDialect dialect);
 
   @Override
   public QueryPart build(SQLDialect dialect) {
-    QueryPart childPart = child.build(dialect);
+    return QueryPart.of(this, dialect);
+  }
 
-    String sql = String.format(getSqlFormat(dialect), childPart.getSql());
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    String format = getSqlFormat(dialect);
+    int slot = format.indexOf("%s");
 
-    return new QueryPart(sql, childPart.getParams());
+    sql.append(format, 0, slot);
+    child.build(dialect, sql, params);
+    sql.append(format, slot + 2, format.length());
   }
 }
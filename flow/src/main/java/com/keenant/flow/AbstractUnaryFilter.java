@@ -1,5 +1,7 @@
 package com.keenant.flow;
 
+import java.util.List;
+
 public abstract class AbstractUnaryFilter extends AbstractFilter {
 
   private final Filter child;
@@ -8,14 +10,24 @@ public abstract class AbstractUnaryFilter extends AbstractFilter {
     this.child = child;
   }
 
+  /**
+   * @param dialect the SQL dialect to use
+   * @return the SQL of this filter, with a single %s where the child goes
+   */
   protected abstract String getSqlFormat(SQLDialect dialect);
 
   @Override
   public QueryPart build(SQLDialect dialect) {
-    QueryPart part = child.build(dialect);
+    return QueryPart.of(this, dialect);
+  }
 
-    String sql = String.format(getSqlFormat(dialect), part.getSql());
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    String format = getSqlFormat(dialect);
+    int slot = format.indexOf("%s");
 
-    return new QueryPart(sql, part.getParams());
+    sql.append(format, 0, slot);
+    child.build(dialect, sql, params);
+    sql.append(format, slot + 2, format.length());
   }
 }
@@ -0,0 +1,419 @@
+package com.keenant.flow;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Maps records to objects of a class, through its constructors, setters or fields.
+ *
+ * @see RowMapper#of(Class)
+ */
+class BeanMapper<T> implements RowMapper<T> {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private final Class<T> type;
+
+  /**
+   * The constructors whose parameters can be matched to fields, by preference.
+   */
+  private final List<Creator> creators;
+  private final MethodHandle noArgs;
+  private final Map<String, Property> properties;
+
+  BeanMapper(Class<T> type) throws IllegalArgumentException {
+    this.type = type;
+    this.creators = new ArrayList<>();
+    this.properties = new HashMap<>();
+
+    Creator canonical = recordCreator(type);
+    if (canonical != null) {
+      creators.add(canonical);
+      noArgs = null;
+    } else {
+      MethodHandle noArgs = null;
+      for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+        if (constructor.isSynthetic() || !makeAccessible(constructor)) {
+          continue;
+        }
+        if (constructor.getParameterCount() == 0) {
+          noArgs = unreflect(constructor).asType(MethodType.methodType(Object.class));
+        } else if (hasNames(constructor)) {
+          String[] names = new String[constructor.getParameterCount()];
+          for (int i = 0; i < names.length; i++) {
+            names[i] = constructor.getParameters()[i].getName();
+          }
+          creators.add(new Creator(unreflect(constructor), names,
+              constructor.getParameterTypes()));
+        }
+      }
+      creators.sort((a, b) -> b.names.length - a.names.length);
+      this.noArgs = noArgs;
+
+      if (noArgs != null) {
+        findProperties(type);
+      }
+    }
+
+    if (creators.isEmpty() && noArgs == null) {
+      throw new IllegalArgumentException(type.getName() + " has no no argument constructor, and"
+          + " no constructor with parameter names (compile with -parameters)");
+    }
+  }
+
+  @Override
+  public RowMapper<T> bind(Record fields) throws NoSuchElementException {
+    // Like a cursor, the last of the fields with the same name is used
+    Map<String, Integer> indexes = new HashMap<>();
+    for (int i = 1; i <= fields.getFieldCount(); i++) {
+      indexes.put(normalize(fields.getFieldLabel(i)), i);
+    }
+
+    for (Creator creator : creators) {
+      RowMapper<T> bound = creator.bind(indexes);
+      if (bound != null) {
+        return bound;
+      }
+    }
+
+    if (noArgs == null) {
+      Creator creator = creators.get(0);
+      for (String name : creator.names) {
+        if (!indexes.containsKey(normalize(name))) {
+          throw new NoSuchElementException("No field for " + type.getName() + "." + name);
+        }
+      }
+    }
+
+    List<Setter> setters = new ArrayList<>();
+    for (Map.Entry<String, Property> entry : properties.entrySet()) {
+      Integer index = indexes.get(entry.getKey());
+      if (index != null) {
+        setters.add(entry.getValue().setter(index));
+      }
+    }
+    Setter[] bound = setters.toArray(new Setter[0]);
+
+    return record -> {
+      try {
+        Object target = noArgs.invokeExact();
+        for (Setter setter : bound) {
+          setter.set(target, record);
+        }
+        return type.cast(target);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalStateException("Could not construct " + type.getName(), e);
+      }
+    };
+  }
+
+  /**
+   * Map a record without binding first, which looks up the fields of every record.
+   */
+  @Override
+  public T map(Record record) {
+    return bind(record).map(record);
+  }
+
+  /**
+   * Find the setters and fields of a class and its superclasses. Setters take precedence over
+   * fields of the same name.
+   */
+  private void findProperties(Class<?> type) {
+    for (Class<?> current = type; current != null && current != Object.class;
+        current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()
+            || !makeAccessible(field)) {
+          continue;
+        }
+        try {
+          properties.putIfAbsent(normalize(field.getName()),
+              new Property(LOOKUP.unreflectSetter(field), field.getType()));
+        } catch (IllegalAccessException e) {
+          // Not accessible after all
+        }
+      }
+    }
+
+    for (Method method : type.getMethods()) {
+      String name = method.getName();
+      if (name.length() > 3 && name.startsWith("set") && method.getParameterCount() == 1
+          && !Modifier.isStatic(method.getModifiers()) && !method.isBridge()) {
+        try {
+          properties.put(normalize(name.substring(3)),
+              new Property(LOOKUP.unreflect(method), method.getParameterTypes()[0]));
+        } catch (IllegalAccessException e) {
+          // Keep the field, if any
+        }
+      }
+    }
+  }
+
+  /**
+   * Find the canonical constructor of a record class, through reflection so that this still runs
+   * on Java 8.
+   *
+   * @return the constructor, or null if the class isn't a record
+   */
+  private Creator recordCreator(Class<?> type) {
+    Object[] components;
+    try {
+      Method getRecordComponents = Class.class.getMethod("getRecordComponents");
+      components = (Object[]) getRecordComponents.invoke(type);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+    if (components == null) {
+      return null;
+    }
+
+    try {
+      String[] names = new String[components.length];
+      Class<?>[] types = new Class<?>[components.length];
+      for (int i = 0; i < components.length; i++) {
+        Object component = components[i];
+        names[i] = (String) component.getClass().getMethod("getName").invoke(component);
+        types[i] = (Class<?>) component.getClass().getMethod("getType").invoke(component);
+      }
+
+      Constructor<?> constructor = type.getDeclaredConstructor(types);
+      if (!makeAccessible(constructor)) {
+        throw new IllegalArgumentException("Cannot access the constructor of " + type.getName());
+      }
+      return new Creator(unreflect(constructor), names, types);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Cannot read the components of " + type.getName(), e);
+    }
+  }
+
+  private static boolean hasNames(Constructor<?> constructor) {
+    for (Parameter parameter : constructor.getParameters()) {
+      if (!parameter.isNamePresent() || parameter.isImplicit() || parameter.isSynthetic()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean makeAccessible(AccessibleObject object) {
+    try {
+      object.setAccessible(true);
+      return true;
+    } catch (RuntimeException e) {
+      // A module that doesn't open its package
+      return false;
+    }
+  }
+
+  private static MethodHandle unreflect(Constructor<?> constructor) {
+    try {
+      return LOOKUP.unreflectConstructor(constructor);
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Cannot access " + constructor, e);
+    }
+  }
+
+  private static String normalize(String name) {
+    return name.replace("_", "").toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Read a field as a type, for a constructor argument.
+   */
+  private static Reader reader(Class<?> type, int index) {
+    if (type == int.class) {
+      return record -> record.getIntValue(index);
+    } else if (type == long.class) {
+      return record -> record.getLongValue(index);
+    } else if (type == double.class) {
+      return record -> record.getDoubleValue(index);
+    }
+
+    Object fallback = defaultValue(type);
+    return record -> {
+      Object value = convert(record.get(index).orElse(null), type);
+      return value == null ? fallback : value;
+    };
+  }
+
+  /**
+   * @return the value a primitive is left at when its field is null, or null
+   */
+  private static Object defaultValue(Class<?> type) {
+    if (!type.isPrimitive()) {
+      return null;
+    }
+    return Array.get(Array.newInstance(type, 1), 0);
+  }
+
+  /**
+   * Convert a value read from the database to a type, as far as JDBC drivers differ in the types
+   * they return: SQLite returns an integer for every integral column and for booleans.
+   *
+   * @throws ClassCastException if the value can't be converted
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  static Object convert(Object value, Class<?> type) throws ClassCastException {
+    if (value == null) {
+      return null;
+    }
+
+    Class<?> boxed = MethodType.methodType(type).wrap().returnType();
+    if (boxed.isInstance(value)) {
+      return value;
+    }
+
+    if (value instanceof Number) {
+      Number number = (Number) value;
+      if (boxed == Integer.class) {
+        return number.intValue();
+      } else if (boxed == Long.class) {
+        return number.longValue();
+      } else if (boxed == Double.class) {
+        return number.doubleValue();
+      } else if (boxed == Float.class) {
+        return number.floatValue();
+      } else if (boxed == Short.class) {
+        return number.shortValue();
+      } else if (boxed == Byte.class) {
+        return number.byteValue();
+      } else if (boxed == Boolean.class) {
+        return number.intValue() != 0;
+      } else if (boxed == BigDecimal.class) {
+        return new BigDecimal(number.toString());
+      } else if (boxed == BigInteger.class) {
+        return new BigDecimal(number.toString()).toBigInteger();
+      }
+    }
+
+    if (type.isEnum() && value instanceof String) {
+      return Enum.valueOf((Class) type, (String) value);
+    }
+
+    throw new ClassCastException(
+        "Cannot convert " + value.getClass().getName() + " to " + type.getName());
+  }
+
+  @FunctionalInterface
+  private interface Reader {
+    Object read(Record record);
+  }
+
+  @FunctionalInterface
+  private interface Setter {
+    void set(Object target, Record record) throws Throwable;
+  }
+
+  /**
+   * A constructor whose parameters are matched to fields by name.
+   */
+  private final class Creator {
+    private final MethodHandle constructor;
+    private final String[] names;
+    private final Class<?>[] types;
+
+    private Creator(MethodHandle constructor, String[] names, Class<?>[] types) {
+      this.constructor = constructor
+          .asSpreader(Object[].class, names.length)
+          .asType(MethodType.methodType(Object.class, Object[].class));
+      this.names = names;
+      this.types = types;
+    }
+
+    /**
+     * @return the mapper, or null if a parameter has no field
+     */
+    private RowMapper<T> bind(Map<String, Integer> indexes) {
+      Reader[] readers = new Reader[names.length];
+      for (int i = 0; i < names.length; i++) {
+        Integer index = indexes.get(normalize(names[i]));
+        if (index == null) {
+          return null;
+        }
+        readers[i] = reader(types[i], index);
+      }
+
+      return record -> {
+        Object[] args = new Object[readers.length];
+        for (int i = 0; i < args.length; i++) {
+          args[i] = readers[i].read(record);
+        }
+
+        try {
+          return type.cast(constructor.invokeExact(args));
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable e) {
+          throw new IllegalStateException("Could not construct " + type.getName(), e);
+        }
+      };
+    }
+  }
+
+  /**
+   * A setter or field, which takes a target and a value.
+   */
+  private static final class Property {
+    private final MethodHandle handle;
+    private final Class<?> type;
+
+    private Property(MethodHandle handle, Class<?> type) {
+      this.handle = handle;
+      this.type = type;
+    }
+
+    /**
+     * @return a setter that sets the value of a field, leaving a primitive alone if it is null
+     */
+    private Setter setter(int index) {
+      if (type == int.class) {
+        MethodHandle set = handle.asType(
+            MethodType.methodType(void.class, Object.class, int.class));
+        return (target, record) -> {
+          set.invokeExact(target, record.getIntValue(index));
+        };
+      } else if (type == long.class) {
+        MethodHandle set = handle.asType(
+            MethodType.methodType(void.class, Object.class, long.class));
+        return (target, record) -> {
+          set.invokeExact(target, record.getLongValue(index));
+        };
+      } else if (type == double.class) {
+        MethodHandle set = handle.asType(
+            MethodType.methodType(void.class, Object.class, double.class));
+        return (target, record) -> {
+          set.invokeExact(target, record.getDoubleValue(index));
+        };
+      }
+
+      MethodHandle set = handle.asType(
+          MethodType.methodType(void.class, Object.class, Object.class));
+      boolean primitive = type.isPrimitive();
+      return (target, record) -> {
+        Object value = convert(record.get(index).orElse(null), type);
+        if (value != null || !primitive) {
+          set.invokeExact(target, value);
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,318 @@
+package com.keenant.flow;
+
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * The values of a single column of an eagerly fetched result, one per record.
+ *
+ * Integer, long and double columns are stored as primitive arrays with a bitmap of null values
+ * rather than as boxed objects. The storage is picked from the column's SQL type, but a database
+ * may still return a value of another type (SQLite columns can hold anything), so adding such a
+ * value promotes the column to plain object storage. {@link #get(int)} therefore always returns
+ * what {@link java.sql.ResultSet#getObject(int)} returned.
+ */
+abstract class ColumnStore {
+  private static final int INITIAL_CAPACITY = 16;
+
+  protected int size;
+
+  /**
+   * Construct the storage for a column.
+   *
+   * @param sqlType the column's type, from {@link java.sql.Types}
+   * @return the empty storage
+   */
+  static ColumnStore of(int sqlType) {
+    switch (sqlType) {
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+        return new IntStore();
+      case Types.BIGINT:
+        return new LongStore();
+      case Types.FLOAT:
+      case Types.REAL:
+      case Types.DOUBLE:
+        return new DoubleStore();
+      default:
+        return new ObjectStore(INITIAL_CAPACITY);
+    }
+  }
+
+  /**
+   * Append a value.
+   *
+   * @param value the value, may be null
+   * @return this storage, or the storage it was promoted to if it can't hold the value
+   */
+  abstract ColumnStore add(Object value);
+
+  /**
+   * @param record the record, starting at 0
+   * @return the value, boxed if stored as a primitive
+   */
+  abstract Object get(int record);
+
+  abstract boolean isNull(int record);
+
+  /**
+   * @param record the record, starting at 0
+   * @return the value converted to an int, or 0 if null
+   * @throws ClassCastException if the value can't be converted to a number
+   * @see Numbers#intValue(Object)
+   */
+  int intValue(int record) throws ClassCastException {
+    return Numbers.intValue(get(record));
+  }
+
+  /**
+   * @see #intValue(int)
+   */
+  long longValue(int record) throws ClassCastException {
+    return Numbers.longValue(get(record));
+  }
+
+  /**
+   * @see #intValue(int)
+   */
+  double doubleValue(int record) throws ClassCastException {
+    return Numbers.doubleValue(get(record));
+  }
+
+  /**
+   * Release the spare capacity once every value has been added.
+   */
+  abstract void trim();
+
+  int size() {
+    return size;
+  }
+
+  ColumnStore promote(Object value) {
+    ObjectStore store = new ObjectStore(size + 1);
+    for (int i = 0; i < size; i++) {
+      store.add(get(i));
+    }
+    return store.add(value);
+  }
+
+  private static int grow(int capacity) {
+    return capacity + (capacity >> 1) + 1;
+  }
+
+  /**
+   * A column of primitives, tracking which records are null.
+   */
+  private abstract static class PrimitiveStore extends ColumnStore {
+    private long[] nulls = new long[1];
+
+    protected abstract int capacity();
+
+    protected abstract void resize(int capacity);
+
+    protected void ensureCapacity() {
+      if (size == capacity()) {
+        resize(grow(size));
+      }
+    }
+
+    protected void addNull() {
+      ensureCapacity();
+      int word = size >> 6;
+      if (word >= nulls.length) {
+        nulls = Arrays.copyOf(nulls, Math.max(word + 1, nulls.length * 2));
+      }
+      nulls[word] |= 1L << size;
+      size++;
+    }
+
+    @Override
+    boolean isNull(int record) {
+      int word = record >> 6;
+      return word < nulls.length && (nulls[word] & (1L << record)) != 0;
+    }
+
+    @Override
+    void trim() {
+      resize(size);
+      nulls = Arrays.copyOf(nulls, (size >> 6) + 1);
+    }
+  }
+
+  static final class IntStore extends PrimitiveStore {
+    private int[] values = new int[INITIAL_CAPACITY];
+
+    @Override
+    ColumnStore add(Object value) {
+      if (value == null) {
+        addNull();
+        return this;
+      }
+      if (!(value instanceof Integer)) {
+        return promote(value);
+      }
+      ensureCapacity();
+      values[size++] = (Integer) value;
+      return this;
+    }
+
+    @Override
+    int intValue(int record) {
+      return values[record];
+    }
+
+    @Override
+    long longValue(int record) {
+      return values[record];
+    }
+
+    @Override
+    double doubleValue(int record) {
+      return values[record];
+    }
+
+    @Override
+    Object get(int record) {
+      return isNull(record) ? null : values[record];
+    }
+
+    @Override
+    protected int capacity() {
+      return values.length;
+    }
+
+    @Override
+    protected void resize(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+  }
+
+  static final class LongStore extends PrimitiveStore {
+    private long[] values = new long[INITIAL_CAPACITY];
+
+    @Override
+    ColumnStore add(Object value) {
+      if (value == null) {
+        addNull();
+        return this;
+      }
+      if (!(value instanceof Long)) {
+        return promote(value);
+      }
+      ensureCapacity();
+      values[size++] = (Long) value;
+      return this;
+    }
+
+    @Override
+    int intValue(int record) {
+      return (int) values[record];
+    }
+
+    @Override
+    long longValue(int record) {
+      return values[record];
+    }
+
+    @Override
+    double doubleValue(int record) {
+      return values[record];
+    }
+
+    @Override
+    Object get(int record) {
+      return isNull(record) ? null : values[record];
+    }
+
+    @Override
+    protected int capacity() {
+      return values.length;
+    }
+
+    @Override
+    protected void resize(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+  }
+
+  static final class DoubleStore extends PrimitiveStore {
+    private double[] values = new double[INITIAL_CAPACITY];
+
+    @Override
+    ColumnStore add(Object value) {
+      if (value == null) {
+        addNull();
+        return this;
+      }
+      if (!(value instanceof Double)) {
+        return promote(value);
+      }
+      ensureCapacity();
+      values[size++] = (Double) value;
+      return this;
+    }
+
+    @Override
+    int intValue(int record) {
+      return (int) values[record];
+    }
+
+    @Override
+    long longValue(int record) {
+      return (long) values[record];
+    }
+
+    @Override
+    double doubleValue(int record) {
+      return values[record];
+    }
+
+    @Override
+    Object get(int record) {
+      return isNull(record) ? null : values[record];
+    }
+
+    @Override
+    protected int capacity() {
+      return values.length;
+    }
+
+    @Override
+    protected void resize(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+  }
+
+  static final class ObjectStore extends ColumnStore {
+    private Object[] values;
+
+    private ObjectStore(int capacity) {
+      values = new Object[capacity];
+    }
+
+    @Override
+    ColumnStore add(Object value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, grow(size));
+      }
+      values[size++] = value;
+      return this;
+    }
+
+    @Override
+    Object get(int record) {
+      return values[record];
+    }
+
+    @Override
+    boolean isNull(int record) {
+      return values[record] == null;
+    }
+
+    @Override
+    void trim() {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package com.keenant.flow;
+
+import com.keenant.flow.exp.SlotExp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A query whose SQL has been built once for a dialect, ready to be executed any number of times.
+ *
+ * Values are left out of the query with {@link Flow#slot()} or {@link Flow#slot(String)}, and are
+ * bound each time it is executed, without building the SQL again. Any other parameters in the
+ * query keep the value they were given when it was compiled.
+ */
+public class CompiledQuery {
+
+  private final String sql;
+  private final Object[] params;
+  private final int[] slots;
+  private final String[] names;
+
+  public CompiledQuery(QueryPart part) {
+    this.sql = part.getSql();
+    this.params = part.getParams().toArray();
+
+    List<Integer> slots = new ArrayList<>();
+    for (int i = 0; i < params.length; i++) {
+      if (params[i] instanceof SlotExp) {
+        slots.add(i);
+      }
+    }
+
+    this.slots = new int[slots.size()];
+    this.names = new String[slots.size()];
+    for (int i = 0; i < this.slots.length; i++) {
+      this.slots[i] = slots.get(i);
+      this.names[i] = ((SlotExp) params[this.slots[i]]).getName();
+    }
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * @return the number of values that must be bound
+   */
+  public int getSlotCount() {
+    return slots.length;
+  }
+
+  /**
+   * Bind values to the slots of this query, in the order they appear in the SQL.
+   *
+   * @param values the value of each slot
+   * @return the query part, ready to be executed
+   * @throws IllegalArgumentException if the number of values does not match the number of slots
+   */
+  public QueryPart bind(Object... values) throws IllegalArgumentException {
+    if (values.length != slots.length) {
+      throw new IllegalArgumentException(
+          "Expected " + slots.length + " values but got " + values.length);
+    }
+
+    Object[] bound = params.clone();
+    for (int i = 0; i < slots.length; i++) {
+      bound[slots[i]] = values[i];
+    }
+    return new QueryPart(sql, Arrays.asList(bound));
+  }
+
+  /**
+   * Bind values to the slots of this query, by slot name.
+   *
+   * @param values the value of each slot, by name
+   * @return the query part, ready to be executed
+   * @throws IllegalArgumentException if a slot has no name, or no value was provided for it
+   */
+  public QueryPart bind(Map<String, ?> values) throws IllegalArgumentException {
+    Object[] bound = params.clone();
+    for (int i = 0; i < slots.length; i++) {
+      if (names[i] == null) {
+        throw new IllegalArgumentException("Slot " + (i + 1) + " has no name");
+      }
+      if (!values.containsKey(names[i])) {
+        throw new IllegalArgumentException("No value for slot " + names[i]);
+      }
+      bound[slots[i]] = values.get(names[i]);
+    }
+    return new QueryPart(sql, Arrays.asList(bound));
+  }
+
+  public EagerCursor fetch(DatabaseContext database, Object... values) {
+    return database.fetch(bind(values));
+  }
+
+  public Cursor fetchLazy(DatabaseContext database, Object... values) {
+    return database.fetchLazy(bind(values));
+  }
+
+  public Result execute(DatabaseContext database, Object... values) {
+    return database.prepareUpdate(bind(values)).execute();
+  }
+
+  /**
+   * Execute this query once for each set of values, with JDBC batches of a single prepared
+   * statement.
+   *
+   * @param database the database
+   * @param values the value of each slot, in the order they appear in the SQL, for each execution
+   * @param batchSize the maximum number of executions sent to the database at once
+   * @return the result
+   * @throws IllegalArgumentException if there are no values, a set of values does not match the
+   * number of slots, or the batch size is not positive
+   * @see DatabaseContext#prepareBatch(List, int)
+   */
+  public Result executeBatch(DatabaseContext database, Collection<? extends List<?>> values,
+      int batchSize) throws IllegalArgumentException {
+    List<QueryPart> batch = new ArrayList<>(values.size());
+    for (List<?> execution : values) {
+      batch.add(bind(execution.toArray()));
+    }
+    return database.prepareBatch(batch, batchSize).execute();
+  }
+
+  public CompletableFuture<EagerCursor> fetchAsync(DatabaseContext database, Object... values) {
+    return database.fetchAsync(bind(values));
+  }
+
+  public CompletableFuture<Result> executeAsync(DatabaseContext database, Object... values) {
+    return database.executeAsync(bind(values));
+  }
+
+  @Override
+  public String toString() {
+    return "CompiledQuery(sql=" + sql + ", slots=" + slots.length + ")";
+  }
+}
@@ -3,6 +3,7 @@ package com.keenant.flow;
 import com.keenant.flow.exception.DatabaseException;
 import java.sql.Connection;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -62,8 +63,20 @@ public interface Connector {
    */
   void release(Connection connection);
 
+  /**
+   * Construct a task that releases an acquired connection. Queries, results and cursors may each
+   * run the task when they are closed, so only the first run releases the connection.
+   *
+   * @param connection the connection
+   * @return the releasing task
+   */
   default Runnable releaser(Connection connection) {
-    return () -> release(connection);
+    AtomicBoolean released = new AtomicBoolean();
+    return () -> {
+      if (released.compareAndSet(false, true)) {
+        release(connection);
+      }
+    };
   }
 
   /**
@@ -3,15 +3,14 @@ package com.keenant.flow;
 import com.keenant.flow.exception.DatabaseException;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -20,25 +19,36 @@ public class Cursor extends AbstractRecord implements AutoCloseable {
   protected final ResultSet resultSet;
   private final Runnable releaser;
 
-  private ResultSetMetaData metaData;
-  private Map<String, Integer> labelToIndex;
+  private ResultFields fields;
   private boolean invalidated;
 
   public Cursor(PreparedStatement statement, ResultSet resultSet, Runnable releaser) {
+    this(statement, resultSet, releaser, null);
+  }
+
+  /**
+   * @param fields the fields of the result, if they are already known (see {@link MetadataCache})
+   */
+  Cursor(PreparedStatement statement, ResultSet resultSet, Runnable releaser,
+      ResultFields fields) {
     this.statement = statement;
     this.resultSet = resultSet;
     this.releaser = releaser;
+    this.fields = fields;
   }
 
-  private ResultSetMetaData getMetaData() {
-    if (metaData == null) {
+  /**
+   * @return the fields of the result, read from its metadata unless they were given
+   */
+  ResultFields fields() {
+    if (fields == null) {
       try {
-        metaData = resultSet.getMetaData();
+        fields = ResultFields.of(resultSet.getMetaData());
       } catch (SQLException e) {
         throw new DatabaseException(e);
       }
     }
-    return metaData;
+    return fields;
   }
 
   public boolean moveNext() {
@@ -49,7 +59,15 @@ public class Cursor extends AbstractRecord implements AutoCloseable {
     if (!ignoreInvalidation) {
       ensureValid();
     }
+    return fetchNext();
+  }
 
+  /**
+   * Move to the next record of the result set.
+   *
+   * @return true if there is a next record
+   */
+  boolean fetchNext() {
     try {
       return resultSet.next();
     } catch (SQLException e) {
@@ -75,6 +93,64 @@ public class Cursor extends AbstractRecord implements AutoCloseable {
     return stream;
   }
 
+  /**
+   * Stream the records mapped to objects. The mapper is bound to the fields of this cursor once,
+   * before the first record is mapped.
+   *
+   * @param mapper the mapper
+   * @param <T> the type of object
+   * @return the stream of objects
+   * @throws IllegalStateException if a stream or iterator has already been created
+   * @throws NoSuchElementException if the mapper needs a field this cursor lacks
+   */
+  public <T> Stream<T> stream(RowMapper<T> mapper)
+      throws IllegalStateException, NoSuchElementException {
+    RowMapper<T> bound = mapper.bind(this);
+    return stream().map(bound::map);
+  }
+
+  /**
+   * Publish the records of this cursor to one subscriber, reading them on the thread that requests
+   * them. The cursor is closed when the records have been published or the subscription is
+   * cancelled, and shouldn't be moved otherwise.
+   *
+   * @return the publisher of detached records
+   * @see RecordPublisher
+   */
+  public RecordPublisher<Record> publisher() {
+    return publisher(null);
+  }
+
+  /**
+   * @param executor the executor to read records on, or null for the requesting thread
+   * @see #publisher()
+   */
+  public RecordPublisher<Record> publisher(Executor executor) {
+    return RecordPublisher.of(this, executor);
+  }
+
+  /**
+   * Publish the records of this cursor to one subscriber in batches, each requested item being a
+   * list of up to {@code size} records.
+   *
+   * @param size the number of records per batch
+   * @return the publisher of batches of detached records
+   * @throws IllegalArgumentException if the size isn't positive
+   * @see #publisher()
+   */
+  public RecordPublisher<List<Record>> batchPublisher(int size) throws IllegalArgumentException {
+    return batchPublisher(size, null);
+  }
+
+  /**
+   * @param executor the executor to read records on, or null for the requesting thread
+   * @see #batchPublisher(int)
+   */
+  public RecordPublisher<List<Record>> batchPublisher(int size, Executor executor)
+      throws IllegalArgumentException {
+    return RecordPublisher.batched(this, size, executor);
+  }
+
   /**
    * @return the cursor record iterator
    * @throws IllegalStateException if a stream or iterator has already been created
@@ -83,6 +159,16 @@ public class Cursor extends AbstractRecord implements AutoCloseable {
     return new CursorIterator();
   }
 
+  /**
+   * Cancel the statement that this cursor reads from, from another thread, such as while it is
+   * waiting for the database to send more records. Does nothing if the cursor has been closed.
+   *
+   * @throws DatabaseException if the statement could not be cancelled
+   */
+  public void cancel() throws DatabaseException {
+    Query.cancel(statement);
+  }
+
   @Override
   public void close() {
     try {
@@ -119,37 +205,91 @@ public class Cursor extends AbstractRecord implements AutoCloseable {
     }
   }
 
-  private void createLabelToIndex() {
-    if (labelToIndex == null) {
-      try {
-        labelToIndex = new HashMap<>();
-        for (int i = 1; i <= getMetaData().getColumnCount(); i++) {
-          labelToIndex.put(getMetaData().getColumnLabel(i), i);
-        }
-      } catch (SQLException e) {
-        throw new DatabaseException(e);
-        // Todo
-      }
+  @Override
+  public int getIntValue(int index) throws NoSuchElementException {
+    if (!hasField(index)) {
+      throw new NoSuchElementException();
+    }
+    try {
+      return resultSet.getInt(index);
+    } catch (SQLException e) {
+      throw new DatabaseException(e);
     }
   }
 
   @Override
-  public boolean hasField(int index) {
+  public long getLongValue(int index) throws NoSuchElementException {
+    if (!hasField(index)) {
+      throw new NoSuchElementException();
+    }
+    try {
+      return resultSet.getLong(index);
+    } catch (SQLException e) {
+      throw new DatabaseException(e);
+    }
+  }
+
+  @Override
+  public double getDoubleValue(int index) throws NoSuchElementException {
+    if (!hasField(index)) {
+      throw new NoSuchElementException();
+    }
+    try {
+      return resultSet.getDouble(index);
+    } catch (SQLException e) {
+      throw new DatabaseException(e);
+    }
+  }
+
+  @Override
+  public boolean wasNull() {
     try {
-      return index >= 1 && index <= getMetaData().getColumnCount();
+      return resultSet.wasNull();
     } catch (SQLException e) {
       throw new DatabaseException(e);
     }
   }
 
+  /**
+   * Copy the current record, so that it can still be read after this cursor has moved on or been
+   * closed.
+   *
+   * @return the copy
+   */
+  public Row detach() {
+    return new Row(fields(), toArray());
+  }
+
+  @Override
+  public Object[] toArray() {
+    try {
+      Object[] values = new Object[fields().size()];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = resultSet.getObject(i + 1);
+      }
+      return values;
+    } catch (SQLException e) {
+      throw new DatabaseException(e);
+    }
+  }
+
+  @Override
+  public int getFieldCount() {
+    return fields().size();
+  }
+
+  @Override
+  public boolean hasField(int index) {
+    return index >= 1 && index <= fields().size();
+  }
+
   @Override
   public boolean hasField(String label) throws IllegalArgumentException {
     if (label == null) {
       throw new IllegalArgumentException();
     }
 
-    createLabelToIndex();
-    return labelToIndex.containsKey(label);
+    return fields().index(label) != null;
   }
 
   @Override
@@ -158,8 +298,7 @@ public class Cursor extends AbstractRecord implements AutoCloseable {
       throw new IllegalArgumentException();
     }
 
-    createLabelToIndex();
-    Integer index = labelToIndex.get(label);
+    Integer index = fields().index(label);
 
     if (index == null) {
       throw new NoSuchElementException();
@@ -170,14 +309,10 @@ public class Cursor extends AbstractRecord implements AutoCloseable {
 
   @Override
   public String getFieldLabel(int index) throws NoSuchElementException {
-    createLabelToIndex();
-    for (String label : labelToIndex.keySet()) {
-      int current = labelToIndex.get(label);
-      if (current == index) {
-        return label;
-      }
+    if (!hasField(index)) {
+      throw new NoSuchElementException();
     }
-    throw new NoSuchElementException();
+    return fields().label(index);
   }
 
   /**
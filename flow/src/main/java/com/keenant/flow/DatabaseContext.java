@@ -1,6 +1,7 @@
 package com.keenant.flow;
 
 import com.keenant.flow.exception.DatabaseException;
+import com.keenant.flow.exp.SlotExp;
 import com.keenant.flow.exp.functions.ListExp;
 import com.keenant.flow.jdbc.FetchConfig;
 import com.keenant.flow.jdbc.QueryScroll;
@@ -9,39 +10,166 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 public class DatabaseContext implements AutoCloseable {
 
   private final SQLDialect dialect;
   private final Connector connector;
+  private final MetadataCache metadata;
+  private final Executor executor;
+  private volatile Integer timeout;
+  private volatile ResultCache resultCache;
 
   public DatabaseContext(SQLDialect dialect, Connector connector) {
+    this(dialect, connector, null);
+  }
+
+  /**
+   * @param dialect the SQL dialect
+   * @param connector the connector
+   * @param executor runs asynchronous queries, or null for virtual threads where the runtime has
+   * them (Java 21+), or else a cached pool of daemon threads
+   */
+  public DatabaseContext(SQLDialect dialect, Connector connector, Executor executor) {
     this.dialect = dialect;
     this.connector = connector;
+    this.executor = executor == null ? Threads.DEFAULT_EXECUTOR : executor;
+    this.metadata = new MetadataCache(MetadataCache.DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @return the executor that runs asynchronous queries
+   */
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * @return the default query timeout in seconds, or null for no timeout
+   */
+  public Integer getTimeout() {
+    return timeout;
+  }
+
+  /**
+   * Set the default query timeout, which applies to updates and batches, and to fetches whose
+   * config has no timeout of its own. A query that times out throws a {@link DatabaseException},
+   * if the driver supports timeouts.
+   *
+   * @param timeout the timeout in seconds, or null for no timeout
+   * @throws IllegalArgumentException if the timeout is negative
+   * @see FetchConfig#getTimeout()
+   */
+  public void setTimeout(Integer timeout) throws IllegalArgumentException {
+    if (timeout != null && timeout < 0) {
+      throw new IllegalArgumentException("Timeout must not be negative");
+    }
+    this.timeout = timeout;
+  }
+
+  /**
+   * @return the cache of fetched results, or null if results aren't cached
+   */
+  public ResultCache getResultCache() {
+    return resultCache;
+  }
+
+  /**
+   * Set the cache that {@link #fetchCached(String, Collection)} keeps results in. Updates prepared
+   * through this context evict the results they change from the cache, both when they are
+   * prepared and when they are closed.
+   *
+   * @param resultCache the cache, or null to not cache results
+   */
+  public void setResultCache(ResultCache resultCache) {
+    this.resultCache = resultCache;
   }
 
   public Query prepareUpdate(String sql, Collection<Object> params) {
+    ensureBound(params);
+
+    Connection connection = connector.acquire();
     try {
-      Connection connection = connector.acquire();
       PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-
-      Iterator<?> iterator = params.iterator();
-      int i = 1;
-      while (iterator.hasNext()) {
-        statement.setObject(i, iterator.next());
-        i++;
-      }
+      setTimeout(statement, null);
+      setParams(statement, params);
 
       // Create the query object, passing on the query config to it
-      return new Query(statement, QueryType.UPDATE, connector.releaser(connection));
+      return new Query(statement, QueryType.UPDATE,
+          invalidating(Collections.singleton(sql), connector.releaser(connection)));
+    } catch (SQLException e) {
+      connector.release(connection);
+      throw new DatabaseException(e);
+    }
+  }
+
+  /**
+   * Prepare updates to be executed in JDBC batches, on a single connection. Consecutive updates
+   * with the same SQL are batched together.
+   *
+   * @param batch the updates
+   * @param batchSize the maximum number of executions sent to the database at once
+   * @return the query
+   * @throws IllegalArgumentException if the batch is empty or the batch size is not positive
+   */
+  public Query prepareBatch(List<QueryPart> batch, int batchSize) throws IllegalArgumentException {
+    if (batch.isEmpty()) {
+      throw new IllegalArgumentException("Batch must not be empty");
+    }
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    for (QueryPart part : batch) {
+      ensureBound(part.getParams());
+    }
+
+    Connection connection = connector.acquire();
+    try {
+      PreparedStatement statement = connection.prepareStatement(batch.get(0).getSql(),
+          Statement.RETURN_GENERATED_KEYS);
+      setTimeout(statement, null);
+
+      Set<String> updates = new HashSet<>();
+      for (QueryPart part : batch) {
+        updates.add(part.getSql());
+      }
+      return new Query(statement, batch, batchSize,
+          invalidating(updates, connector.releaser(connection)));
     } catch (SQLException e) {
+      connector.release(connection);
       throw new DatabaseException(e);
     }
   }
 
+  /**
+   * Prepare an update to be executed once for each set of parameters, in JDBC batches.
+   *
+   * @param sql the update
+   * @param batch the parameters of each execution
+   * @param batchSize the maximum number of executions sent to the database at once
+   * @return the query
+   * @throws IllegalArgumentException if the batch is empty or the batch size is not positive
+   */
+  public Query prepareBatch(String sql, List<? extends List<Object>> batch, int batchSize)
+      throws IllegalArgumentException {
+    List<QueryPart> parts = new ArrayList<>(batch.size());
+    for (List<Object> params : batch) {
+      parts.add(new QueryPart(sql, params));
+    }
+    return prepareBatch(parts, batchSize);
+  }
+
   public Query prepareUpdate(String sql, Object... params) {
     return prepareUpdate(sql, Arrays.asList(params));
   }
@@ -51,30 +179,98 @@ public class DatabaseContext implements AutoCloseable {
   }
 
   public Query prepareFetch(FetchConfig config, String sql, Collection<?> params) {
-    try {
-      Connection connection = connector.acquire();
+    ensureBound(params);
 
+    Connection connection = connector.acquire();
+    try {
       @SuppressWarnings("MagicConstant")
       PreparedStatement statement = connection.prepareStatement(
           sql,
           config.getType().getValue(),
           config.getConcurrency().getValue()
       );
+      configure(statement, config);
+      setParams(statement, params);
 
-      Iterator<?> iterator = params.iterator();
-      int i = 1;
-      while (iterator.hasNext()) {
-        statement.setObject(i, iterator.next());
-        i++;
+      // A write that returns records, such as DELETE ... RETURNING, changes cached results too
+      Runnable releaser = connector.releaser(connection);
+      if (resultCache != null && ResultCache.writtenTable(sql) != null) {
+        releaser = invalidating(Collections.singleton(sql), releaser);
       }
 
       // Create the query object, passing on the query config to it
-      return new Query(statement, QueryType.FETCH, connector.releaser(connection));
+      return new Query(statement, metadata, sql, releaser);
     } catch (SQLException e) {
+      connector.release(connection);
       throw new DatabaseException(e);
     }
   }
 
+  /**
+   * Evict the results that updates change from the result cache, now and again once they have
+   * been executed, when they release their connection. Evicting afterwards as well drops results
+   * that were cached while the updates ran.
+   *
+   * @param updates the SQL of the updates
+   * @param releaser releases the connection of the updates
+   * @return the releaser, which also evicts the results
+   */
+  private Runnable invalidating(Collection<String> updates, Runnable releaser) {
+    ResultCache cache = resultCache;
+    if (cache == null) {
+      return releaser;
+    }
+
+    updates.forEach(cache::invalidateWrites);
+    return () -> {
+      try {
+        releaser.run();
+      } finally {
+        updates.forEach(cache::invalidateWrites);
+      }
+    };
+  }
+
+  private void ensureBound(Collection<?> params) throws IllegalStateException {
+    for (Object param : params) {
+      if (param instanceof SlotExp) {
+        throw new IllegalStateException("No value bound to " + param + ", compile the query first");
+      }
+    }
+  }
+
+  private void configure(PreparedStatement statement, FetchConfig config) throws SQLException {
+    // Every option is set, even to its default, because a cached statement keeps the options an
+    // earlier query set on it
+    setTimeout(statement, config.getTimeout());
+    statement.setMaxRows(config.getMaxRows() == null ? 0 : config.getMaxRows());
+
+    if (config.isStreaming() && dialect.getStreamingFetchSize() != null) {
+      statement.setFetchSize(dialect.getStreamingFetchSize());
+    } else {
+      statement.setFetchSize(config.getFetchSize() == null ? 0 : config.getFetchSize());
+    }
+  }
+
+  /**
+   * Set a statement's timeout, falling back to the default timeout.
+   */
+  private void setTimeout(PreparedStatement statement, Integer timeout) throws SQLException {
+    if (timeout == null) {
+      timeout = this.timeout;
+    }
+    statement.setQueryTimeout(timeout == null ? 0 : timeout);
+  }
+
+  static void setParams(PreparedStatement statement, Collection<?> params) throws SQLException {
+    Iterator<?> iterator = params.iterator();
+    int i = 1;
+    while (iterator.hasNext()) {
+      statement.setObject(i, iterator.next());
+      i++;
+    }
+  }
+
   public Query prepareFetch(String sql, Collection<?> params) {
     return prepareFetch(FetchConfig.DEFAULT, sql, params);
   }
@@ -117,11 +313,84 @@ public class DatabaseContext implements AutoCloseable {
     return fetch(part.getSql(), part.getParams());
   }
 
+  /**
+   * Fetch records through the result cache, reading them from the database only if the query (by
+   * SQL and parameters) isn't cached. Every fetch of a cached query gets its own cursor over the
+   * same records, so closing it is optional. Without a result cache, this is the same as
+   * {@link #fetch(String, Collection)}.
+   *
+   * @param sql the query
+   * @param params the query parameters
+   * @return the cursor
+   * @see #setResultCache(ResultCache)
+   */
+  public EagerCursor fetchCached(String sql, Collection<?> params) {
+    ResultCache cache = resultCache;
+    if (cache == null) {
+      return fetch(sql, params);
+    }
+
+    EagerCursor cached = cache.get(sql, params);
+    if (cached != null) {
+      return cached;
+    }
+
+    long generation = cache.generation();
+    SafeEagerCursor cursor = prepareFetch(FetchConfig.DEFAULT, sql, params).execute().populate();
+    cache.put(sql, params, cursor, generation);
+    return cursor;
+  }
+
+  public EagerCursor fetchCached(String sql, Object... params) {
+    return fetchCached(sql, Arrays.asList(params));
+  }
+
+  public EagerCursor fetchCached(QueryPart part) {
+    return fetchCached(part.getSql(), part.getParams());
+  }
+
+  /**
+   * Fetch records lazily, reading them from the database as the cursor is iterated, or ahead of
+   * it if the config reads ahead.
+   *
+   * @param config the fetch config, which must be forward only
+   * @param sql the query
+   * @param params the query parameters
+   * @return the cursor
+   * @see FetchConfig#getReadAhead()
+   */
+  public Cursor fetchLazy(FetchConfig config, String sql, Collection<?> params) {
+    Result result = prepareFetch(config, sql, params).execute();
+    if (config.getReadAhead() != null) {
+      try {
+        return result.readAheadCursor(config.getReadAhead(), config.getReadAheadExecutor());
+      } catch (RuntimeException e) {
+        result.close();
+        throw e;
+      }
+    }
+    return result.lazyCursor();
+  }
+
+  public Cursor fetchLazy(FetchConfig config, String sql, Object... params) {
+    return fetchLazy(config, sql, Arrays.asList(params));
+  }
+
+  public Cursor fetchLazy(FetchConfig config, QueryPart part) {
+    return fetchLazy(config, part.getSql(), part.getParams());
+  }
+
+  /**
+   * Fetch records lazily, streaming them from the database so that results of any size can be
+   * read in constant memory.
+   *
+   * @param sql the query
+   * @param params the query parameters
+   * @return the cursor
+   * @see FetchConfig#STREAMING
+   */
   public Cursor fetchLazy(String sql, Collection<?> params) {
-    FetchConfig config = FetchConfig.builder()
-        .type(QueryScroll.FORWARD_ONLY)
-        .build();
-    return prepareFetch(config, sql, params).execute().lazyCursor();
+    return fetchLazy(FetchConfig.STREAMING, sql, params);
   }
 
   public Cursor fetchLazy(String sql, Object... params) {
@@ -132,6 +401,58 @@ public class DatabaseContext implements AutoCloseable {
     return fetchLazy(part.getSql(), part.getParams());
   }
 
+  /**
+   * Run a task on this database's executor. Each task holds a connection of its own while it
+   * runs, so independent queries started together run concurrently, as far as the connector
+   * allows.
+   *
+   * If the future is cancelled before the task finishes, a result that needs closing (such as a
+   * cursor) is closed when the task does finish.
+   *
+   * @param task the task
+   * @param <T> the type of result
+   * @return the future result of the task
+   */
+  public <T> CompletableFuture<T> async(Supplier<T> task) {
+    return Threads.async(executor, task, () -> { });
+  }
+
+  /**
+   * Fetch records on this database's executor.
+   *
+   * @see #fetch(String, Collection)
+   * @see #async(Supplier)
+   */
+  public CompletableFuture<EagerCursor> fetchAsync(String sql, Collection<?> params) {
+    return async(() -> fetch(sql, params));
+  }
+
+  public CompletableFuture<EagerCursor> fetchAsync(String sql, Object... params) {
+    return fetchAsync(sql, Arrays.asList(params));
+  }
+
+  public CompletableFuture<EagerCursor> fetchAsync(QueryPart part) {
+    return fetchAsync(part.getSql(), part.getParams());
+  }
+
+  /**
+   * Execute an update on this database's executor.
+   *
+   * @see #prepareUpdate(String, Collection)
+   * @see #async(Supplier)
+   */
+  public CompletableFuture<Result> executeAsync(String sql, Collection<Object> params) {
+    return async(() -> prepareUpdate(sql, params).execute());
+  }
+
+  public CompletableFuture<Result> executeAsync(String sql, Object... params) {
+    return executeAsync(sql, Arrays.asList(params));
+  }
+
+  public CompletableFuture<Result> executeAsync(QueryPart part) {
+    return executeAsync(part.getSql(), part.getParams());
+  }
+
   public SelectPrefixScoped select() {
     return select(Flow.wildcard());
   }
@@ -148,6 +469,29 @@ public class DatabaseContext implements AutoCloseable {
     return new InsertScoped(table, this, dialect);
   }
 
+  public UpdateScoped update(Exp table) {
+    return new UpdateScoped(table, this, dialect);
+  }
+
+  /**
+   * Forget the fields of every query's results, after the schema has changed. The fields of each
+   * query are otherwise read once and shared by the results of every later fetch, unless a result
+   * has a different number of fields.
+   */
+  public void invalidateMetadata() {
+    metadata.invalidate();
+  }
+
+  /**
+   * Forget the fields of a query's results, after the schema has changed.
+   *
+   * @param sql the query
+   * @see #invalidateMetadata()
+   */
+  public void invalidateMetadata(String sql) {
+    metadata.invalidate(sql);
+  }
+
   @Override
   public void close() {
     connector.releaseAll();
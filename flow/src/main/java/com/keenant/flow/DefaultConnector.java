@@ -4,16 +4,23 @@ import com.keenant.flow.exception.DatabaseException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Opens a single connection to a database, by URL.
+ * Opens a new connection to a database, by URL, each time one is acquired.
+ *
+ * @see PooledConnector to re-use connections instead
  */
 public class DefaultConnector implements Connector {
   private final String url;
   private final String username;
   private final String password;
+  private final Set<Connection> open = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
   public DefaultConnector(String url, String username, String password) {
     this.url = url;
@@ -24,7 +31,9 @@ public class DefaultConnector implements Connector {
   @Override
   public Connection acquire() throws DatabaseException {
     try {
-      return DriverManager.getConnection(url, username, password);
+      Connection connection = DriverManager.getConnection(url, username, password);
+      open.add(connection);
+      return connection;
     } catch (SQLException e) {
       throw new DatabaseException(e);
     }
@@ -37,6 +46,7 @@ public class DefaultConnector implements Connector {
     }
 
     try {
+      open.remove(connection);
       connection.close();
     } catch (SQLException e) {
       throw new DatabaseException(e);
@@ -45,6 +55,12 @@ public class DefaultConnector implements Connector {
 
   @Override
   public void releaseAll() {
-    // TODO
+    for (Connection connection : new ArrayList<>(open)) {
+      try {
+        release(connection);
+      } catch (DatabaseException e) {
+        // Ignore, keep closing the rest
+      }
+    }
   }
 }
@@ -1,5 +1,6 @@
 package com.keenant.flow;
 
+import com.keenant.flow.exp.functions.ListExp;
 import com.keenant.flow.jdbc.FetchConfig;
 import java.util.ArrayList;
 import java.util.List;
@@ -8,6 +9,9 @@ public class Delete {
 
   private Exp table;
   private Filter filter;
+  private Exp order;
+  private Long limit;
+  private Long offset;
 
   public Delete(Exp table) {
     this.table = table;
@@ -16,6 +20,9 @@ public class Delete {
   public Delete cpy() {
     Delete select = new Delete(table);
     select.filter = filter; // immutable
+    select.order = order;
+    select.limit = limit;
+    select.offset = offset;
     return select;
   }
 
@@ -29,34 +36,135 @@ public class Delete {
     return this;
   }
 
-  public QueryPart build(SQLDialect dialect) {
-    QueryPart tablePart = table.build(dialect);
-    QueryPart filterPart = filter == null ? null : filter.build(dialect);
+  /**
+   * Order the records, to choose which are deleted when the delete is limited.
+   *
+   * @param order the order
+   * @return this delete
+   */
+  public Delete order(Exp order) {
+    this.order = this.order == null ? order : new ListExp(this.order, order);
+    return this;
+  }
+
+  /**
+   * Limit the number of records deleted. Databases that can't limit a delete directly, like
+   * SQLite, delete the records whose row ids a limited select finds.
+   *
+   * @param limit the most records to delete
+   * @return this delete
+   * @throws IllegalArgumentException if the limit is negative
+   * @see SQLDialect#getRowId()
+   */
+  public Delete limit(long limit) throws IllegalArgumentException {
+    if (limit < 0) {
+      throw new IllegalArgumentException("Limit must not be negative");
+    }
+    this.limit = limit;
+    return this;
+  }
+
+  /**
+   * Skip records before the first one deleted. Only databases with row ids (SQLite) support an
+   * offset.
+   *
+   * @param offset the number of records to skip
+   * @return this delete
+   * @throws IllegalArgumentException if the offset is negative
+   */
+  public Delete offset(long offset) throws IllegalArgumentException {
+    if (offset < 0) {
+      throw new IllegalArgumentException("Offset must not be negative");
+    }
+    this.offset = offset;
+    return this;
+  }
 
+  public QueryPart build(SQLDialect dialect) {
     StringBuilder sql = new StringBuilder();
     List<Object> params = new ArrayList<>();
+    build(dialect, sql, params);
+    return new QueryPart(sql.toString(), params);
+  }
 
+  /**
+   * Append this query to a query that is being built.
+   *
+   * @param dialect the SQL dialect to use
+   * @param sql the SQL built so far
+   * @param params the parameters built so far
+   * @throws IllegalStateException if the delete has an offset, but the dialect has no row ids
+   */
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params)
+      throws IllegalStateException {
     sql.append("DELETE ");
 
     sql.append(" FROM ");
+    table.build(dialect, sql, params);
+
+    boolean limited = limit != null || offset != null;
+    if (limited && dialect.getRowId() != null) {
+      // DELETE FROM t WHERE rowid IN (SELECT rowid FROM t WHERE ... LIMIT ?)
+      String rowId = dialect.getRowId();
+      sql.append(" WHERE ").append(rowId).append(" IN (SELECT ").append(rowId).append(" FROM ");
+      table.build(dialect, sql, params);
+      buildConditions(dialect, sql, params, true);
+      dialect.limit(sql, params, limit, offset);
+      sql.append(')');
+    } else {
+      if (offset != null) {
+        throw new IllegalStateException(dialect.getName() + " cannot delete with an offset");
+      }
+      buildConditions(dialect, sql, params, limited);
+      dialect.limit(sql, params, limit, null);
+    }
+  }
 
-    sql.append(tablePart.getSql());
-    params.addAll(tablePart.getParams());
-
-    if (filterPart != null) {
+  /**
+   * @param ordered true to order the records, which only matters when the delete is limited
+   */
+  private void buildConditions(SQLDialect dialect, StringBuilder sql, List<Object> params,
+      boolean ordered) {
+    if (filter != null) {
       sql.append(" WHERE ");
+      filter.build(dialect, sql, params);
+    }
 
-      sql.append(filterPart.getSql());
-      params.addAll(filterPart.getParams());
+    if (ordered && order != null) {
+      sql.append(" ORDER BY ");
+      order.build(dialect, sql, params);
     }
+  }
 
-    return new QueryPart(sql.toString(), params);
+  /**
+   * Build this query once, so it can be executed repeatedly with new values for its slots.
+   *
+   * @param dialect the SQL dialect to use
+   * @return the compiled query
+   */
+  public CompiledQuery compile(SQLDialect dialect) {
+    return new CompiledQuery(build(dialect));
   }
 
   private Result execute(DatabaseContext database, SQLDialect dialect, FetchConfig config) {
     return database.prepareFetch(config, build(dialect)).execute();
   }
 
+  /**
+   * Delete the records, as an update.
+   *
+   * @param database the database
+   * @param dialect the SQL dialect to use
+   * @return the result, which must be closed
+   */
+  public Result executeAndReturn(DatabaseContext database, SQLDialect dialect) {
+    return database.prepareUpdate(build(dialect)).execute();
+  }
+
+  public void execute(DatabaseContext database, SQLDialect dialect) {
+    executeAndReturn(database, dialect).close();
+  }
+
   public EagerCursor fetch(DatabaseContext database, SQLDialect dialect) {
     return database.fetch(build(dialect));
   }
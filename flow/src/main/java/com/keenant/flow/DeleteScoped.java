@@ -1,6 +1,7 @@
 package com.keenant.flow;
 
 import com.keenant.flow.exception.DatabaseException;
+import java.util.List;
 
 public class DeleteScoped implements QueryPartBuilder {
 
@@ -30,6 +31,14 @@ public class DeleteScoped implements QueryPartBuilder {
     return delete.build(dialect);
   }
 
+  public CompiledQuery compile() {
+    return delete.compile(dialect);
+  }
+
+  public Result execute() throws DatabaseException {
+    return delete.executeAndReturn(database, dialect);
+  }
+
   public EagerCursor fetch() {
     return delete.fetch(database, dialect);
   }
@@ -53,6 +62,30 @@ public class DeleteScoped implements QueryPartBuilder {
     return this;
   }
 
+  /**
+   * @see Delete#order(Exp)
+   */
+  public DeleteScoped order(Exp order) {
+    delete.order(order);
+    return this;
+  }
+
+  /**
+   * @see Delete#limit(long)
+   */
+  public DeleteScoped limit(long limit) throws IllegalArgumentException {
+    delete.limit(limit);
+    return this;
+  }
+
+  /**
+   * @see Delete#offset(long)
+   */
+  public DeleteScoped offset(long offset) throws IllegalArgumentException {
+    delete.offset(offset);
+    return this;
+  }
+
   public EagerCursor fetch(DatabaseContext database, SQLDialect dialect) {
     return delete.fetch(database, dialect);
   }
@@ -65,4 +98,9 @@ public class DeleteScoped implements QueryPartBuilder {
   public QueryPart build(SQLDialect dialect) {
     return delete.build(dialect);
   }
+
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    delete.build(dialect, sql, params);
+  }
 }
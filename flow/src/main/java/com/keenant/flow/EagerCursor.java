@@ -10,6 +10,11 @@ public class EagerCursor extends Cursor {
     super(statement, resultSet, releaser);
   }
 
+  EagerCursor(PreparedStatement statement, ResultSet resultSet, Runnable releaser,
+      ResultFields fields) {
+    super(statement, resultSet, releaser, fields);
+  }
+
   public void moveTo(int record) {
     try {
       resultSet.absolute(record);
@@ -25,6 +25,16 @@ public interface Exp extends QueryPartBuilder {
    */
   Filter not();
 
+  /**
+   * @return the IS NULL filter
+   */
+  Filter isNull();
+
+  /**
+   * @return the IS NOT NULL filter
+   */
+  Filter isNotNull();
+
   /**
    * @param other the right-hand-side
    * @return the IN filter
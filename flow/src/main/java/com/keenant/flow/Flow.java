@@ -5,6 +5,7 @@ import com.keenant.flow.exp.DistinctExp;
 import com.keenant.flow.exp.FieldExp;
 import com.keenant.flow.exp.ParamExp;
 import com.keenant.flow.exp.PlainExp;
+import com.keenant.flow.exp.SlotExp;
 import com.keenant.flow.exp.functions.AbsExp;
 import com.keenant.flow.exp.functions.AvgExp;
 import com.keenant.flow.exp.functions.CountExp;
@@ -39,6 +40,18 @@ public class Flow {
     return new DefaultConnector(url, username, password);
   }
 
+  public static PooledConnector.Builder pool(Connector source) {
+    return PooledConnector.builder(source);
+  }
+
+  public static PooledConnector.Builder pool(String url) {
+    return pool(connect(url));
+  }
+
+  public static PooledConnector.Builder pool(String url, String username, String password) {
+    return pool(connect(url, username, password));
+  }
+
   public static DatabaseContext database(SQLDialect dialect, Connector connector) {
     return new DatabaseContext(dialect, connector);
   }
@@ -59,6 +72,10 @@ public class Flow {
     return new Insert(table);
   }
 
+  public static Update update(Exp table) {
+    return new Update(table);
+  }
+
   public static QueryPart parameterize(String sql, Object... params) {
     return new QueryPart(sql, params);
   }
@@ -156,6 +173,14 @@ public class Flow {
     return new PlainExp(sql);
   }
 
+  public static SlotExp slot() {
+    return new SlotExp();
+  }
+
+  public static SlotExp slot(String name) {
+    return new SlotExp(name);
+  }
+
   public static SumExp sum(Exp exp) {
     return new SumExp(exp);
   }
@@ -2,16 +2,26 @@ package com.keenant.flow;
 
 import com.keenant.flow.exp.ParamExp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class Insert {
 
+  /**
+   * The default maximum number of records sent to the database in each batch.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 1000;
+
   private Exp table;
   private final List<Map<String, Exp>> records;
+  private List<String> conflictKeys;
+  private List<String> conflictUpdates;
 
   public Insert(Exp table) {
     this.table = table;
@@ -33,9 +43,12 @@ public class Insert {
 
   public Insert cpy() {
     Insert insert = new Insert(table);
+    insert.records.clear();
     for (Map<String, Exp> record : records) {
       insert.records.add(new HashMap<>(record));
     }
+    insert.conflictKeys = conflictKeys == null ? null : new ArrayList<>(conflictKeys);
+    insert.conflictUpdates = conflictUpdates == null ? null : new ArrayList<>(conflictUpdates);
     return insert;
   }
 
@@ -57,24 +70,102 @@ public class Insert {
     return with(column.getName(), value);
   }
 
+  public Insert with(Column<?> column, Exp value) {
+    return with(column.getName(), value);
+  }
+
   public Insert nextRecord() {
     records.add(new HashMap<>());
     return this;
   }
 
+  /**
+   * Make this an upsert: records that conflict with existing ones on a unique index or primary key
+   * update them, in the same statement, rather than failing. Every inserted column but the keys is
+   * updated, unless limited by {@link #onConflictUpdate(String...)}.
+   *
+   * @param keys the columns of the unique index or primary key that conflicts
+   * @return this insert
+   * @see SQLDialect#upsert(StringBuilder, Collection, Collection)
+   */
+  public Insert onConflict(String... keys) {
+    conflictKeys = new ArrayList<>(Arrays.asList(keys));
+    return this;
+  }
+
+  public Insert onConflict(Column<?>... keys) {
+    return onConflict(names(keys));
+  }
+
+  /**
+   * Make this an upsert that only updates some columns of the records it conflicts with.
+   *
+   * @param columns the columns to update with the inserted values
+   * @return this insert
+   * @see #onConflict(String...)
+   */
+  public Insert onConflictUpdate(String... columns) {
+    if (conflictKeys == null) {
+      conflictKeys = new ArrayList<>();
+    }
+    conflictUpdates = new ArrayList<>(Arrays.asList(columns));
+    return this;
+  }
+
+  public Insert onConflictUpdate(Column<?>... columns) {
+    return onConflictUpdate(names(columns));
+  }
+
+  /**
+   * Make this an upsert that leaves the records it conflicts with as they are, skipping the
+   * inserted records instead. Without keys from {@link #onConflict(String...)}, a conflict on any
+   * unique index or primary key skips the record.
+   *
+   * @return this insert
+   * @see #onConflict(String...)
+   */
+  public Insert onConflictDoNothing() {
+    return onConflictUpdate(new String[0]);
+  }
+
+  private static String[] names(Column<?>[] columns) {
+    String[] names = new String[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      names[i] = columns[i].getName();
+    }
+    return names;
+  }
+
   public QueryPart build(SQLDialect dialect) {
     StringBuilder sql = new StringBuilder();
     List<Object> params = new ArrayList<>();
+    build(dialect, sql, params);
+    return new QueryPart(sql.toString(), params);
+  }
 
+  /**
+   * Append this query to a query that is being built.
+   *
+   * @param dialect the SQL dialect to use
+   * @param sql the SQL built so far
+   * @param params the parameters built so far
+   */
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
     Set<String> columns = columnNames();
 
-    sql.append("INSERT INTO ");
-
-    {
-      QueryPart tablePart = table.build(dialect);
-      sql.append(tablePart.getSql());
-      params.addAll(tablePart.getParams());
+    buildHeader(dialect, columns, sql, params);
+    for (Map<String, Exp> record : records) {
+      buildRecord(dialect, columns, record, sql, params);
+      sql.append(",");
     }
+    sql.deleteCharAt(sql.length() - 1);
+    buildUpsert(dialect, columns, sql);
+  }
+
+  private void buildHeader(SQLDialect dialect, Set<String> columns, StringBuilder sql,
+      List<Object> params) {
+    sql.append("INSERT INTO ");
+    table.build(dialect, sql, params);
 
     sql.append(" (");
     for (String column : columns) {
@@ -83,30 +174,246 @@ public class Insert {
     }
     sql.deleteCharAt(sql.length() - 1);
     sql.append(") VALUES ");
+  }
 
-    for (Map<String, Exp> record : records) {
-      sql.append("(");
-      for (String column : columns) {
-        QueryPart curr = record.get(column).build(dialect);
-        sql.append(curr.getSql());
-        params.addAll(curr.getParams());
-        sql.append(",");
+  /**
+   * Append the dialect's upsert clause, if this is an upsert. It has no parameters, so it is the
+   * same however many records come before it.
+   */
+  private void buildUpsert(SQLDialect dialect, Set<String> columns, StringBuilder sql) {
+    if (conflictKeys == null) {
+      return;
+    }
+
+    Collection<String> updates = conflictUpdates;
+    if (updates == null) {
+      updates = new ArrayList<>(columns);
+      updates.removeAll(conflictKeys);
+    }
+    dialect.upsert(sql, conflictKeys, updates);
+  }
+
+  private void buildRecord(SQLDialect dialect, Set<String> columns, Map<String, Exp> record,
+      StringBuilder sql, List<Object> params) {
+    sql.append("(");
+    for (String column : columns) {
+      record.get(column).build(dialect, sql, params);
+      sql.append(",");
+    }
+    sql.deleteCharAt(sql.length() - 1);
+    sql.append(")");
+  }
+
+  /**
+   * Build this query once, so it can be executed repeatedly with new values for its slots.
+   *
+   * @param dialect the SQL dialect to use
+   * @return the compiled query
+   */
+  public CompiledQuery compile(SQLDialect dialect) {
+    return new CompiledQuery(build(dialect));
+  }
+
+  /**
+   * Build this query as one or more statements, each within the dialect's limits on parameters
+   * and packet size. Records are added to a statement until the next would exceed a limit, and a
+   * record that exceeds a limit on its own gets a statement to itself.
+   *
+   * Statements with the same number of records share the same SQL string, as long as every record
+   * builds the same SQL, so prepared statements can be re-used. An upsert clause ends each
+   * statement.
+   *
+   * @param dialect the SQL dialect to use
+   * @return the statements, in order
+   */
+  public List<QueryPart> buildChunks(SQLDialect dialect) {
+    Set<String> columns = columnNames();
+    StringBuilder header = new StringBuilder();
+    List<Object> headerParams = new ArrayList<>();
+    buildHeader(dialect, columns, header, headerParams);
+    StringBuilder footer = new StringBuilder();
+    buildUpsert(dialect, columns, footer);
+
+    // Build each record on its own, sharing the SQL string of records that build the same SQL
+    String[] recordSql = new String[records.size()];
+    List<List<Object>> recordParams = new ArrayList<>(records.size());
+    StringBuilder sql = new StringBuilder();
+    boolean uniform = true;
+
+    for (int i = 0; i < records.size(); i++) {
+      List<Object> params = new ArrayList<>();
+      sql.setLength(0);
+      buildRecord(dialect, columns, records.get(i), sql, params);
+
+      if (i > 0 && recordSql[0].contentEquals(sql)) {
+        recordSql[i] = recordSql[0];
+      } else {
+        recordSql[i] = sql.toString();
+        uniform = i == 0;
       }
-      sql.deleteCharAt(sql.length() - 1);
-      sql.append("),");
+      recordParams.add(params);
+    }
+
+    int maxParameters = dialect.getMaxParameters() == null ? Integer.MAX_VALUE
+        : dialect.getMaxParameters();
+    long maxPacketSize = dialect.getMaxPacketSize() == null ? Long.MAX_VALUE
+        : dialect.getMaxPacketSize();
+
+    List<QueryPart> chunks = new ArrayList<>();
+    Map<Integer, String> chunkSql = new HashMap<>();
+    int start = 0;
+
+    while (start < records.size()) {
+      int paramCount = headerParams.size();
+      long packetSize = header.length() + footer.length();
+      int end = start;
+
+      while (end < records.size()) {
+        int recordParamCount = recordParams.get(end).size();
+        long recordPacketSize = recordSql[end].length() + 1 + estimateSize(recordParams.get(end));
+
+        if (end > start && (paramCount + recordParamCount > maxParameters
+            || packetSize + recordPacketSize > maxPacketSize)) {
+          break;
+        }
+        paramCount += recordParamCount;
+        packetSize += recordPacketSize;
+        end++;
+      }
+
+      int first = start;
+      int count = end - start;
+      String chunk;
+      if (uniform) {
+        chunk = chunkSql.computeIfAbsent(count,
+            size -> joinRecords(header, recordSql, first, size, footer));
+      } else {
+        chunk = joinRecords(header, recordSql, first, count, footer);
+      }
+
+      List<Object> params = new ArrayList<>(paramCount);
+      params.addAll(headerParams);
+      for (int i = start; i < end; i++) {
+        params.addAll(recordParams.get(i));
+      }
+
+      chunks.add(new QueryPart(chunk, params));
+      start = end;
+    }
+
+    return chunks;
+  }
+
+  private static String joinRecords(CharSequence header, String[] recordSql, int start,
+      int count, CharSequence footer) {
+    StringBuilder sql = new StringBuilder(header);
+    for (int i = start; i < start + count; i++) {
+      sql.append(recordSql[i]);
+      sql.append(",");
     }
     sql.deleteCharAt(sql.length() - 1);
+    sql.append(footer);
+    return sql.toString();
+  }
 
-    return new QueryPart(sql.toString(), params);
+  /**
+   * Estimate the bytes taken to send parameters to the database, erring on the high side:
+   * strings are assumed to take 3 bytes per character (UTF-8), and bytes are escaped.
+   */
+  private static long estimateSize(List<Object> params) {
+    long size = 0;
+    for (Object param : params) {
+      if (param instanceof CharSequence) {
+        size += ((CharSequence) param).length() * 3L + 2;
+      } else if (param instanceof byte[]) {
+        size += ((byte[]) param).length * 2L + 3;
+      } else {
+        size += 32;
+      }
+    }
+    return size;
   }
 
+  /**
+   * Insert the records, split into as few statements as the dialect's limits allow.
+   *
+   * @param database the database
+   * @param dialect the SQL dialect to use
+   * @return the result
+   * @see #buildChunks(SQLDialect)
+   */
   public Result executeAndReturn(DatabaseContext database, SQLDialect dialect) {
-    QueryPart part = build(dialect);
-    Query query = database.prepareUpdate(part);
-    return query.execute();
+    return execute(database, buildChunks(dialect));
+  }
+
+  /**
+   * Insert the records on the database's executor. The statements are built before this returns,
+   * so the records can be changed afterwards without affecting the insert.
+   *
+   * @param database the database
+   * @param dialect the SQL dialect to use
+   * @return the future result
+   * @see #executeAndReturn(DatabaseContext, SQLDialect)
+   * @see DatabaseContext#async(java.util.function.Supplier)
+   */
+  public CompletableFuture<Result> executeAsync(DatabaseContext database, SQLDialect dialect) {
+    List<QueryPart> chunks = buildChunks(dialect);
+    return database.async(() -> execute(database, chunks));
+  }
+
+  private static Result execute(DatabaseContext database, List<QueryPart> chunks) {
+    if (chunks.size() == 1) {
+      return database.prepareUpdate(chunks.get(0)).execute();
+    }
+    return database.prepareBatch(chunks, DEFAULT_BATCH_SIZE).execute();
   }
 
   public void execute(DatabaseContext database, SQLDialect dialect) {
-    executeAndReturn(database, dialect);
+    executeAndReturn(database, dialect).close();
+  }
+
+  /**
+   * Insert the records with a JDBC batch, executing a single record statement once per record
+   * rather than one statement with every record. The records must only differ in their
+   * parameters.
+   *
+   * @param database the database
+   * @param dialect the SQL dialect to use
+   * @param batchSize the maximum number of records sent to the database at once
+   * @return the result, with the records generated by every batch
+   * @throws IllegalArgumentException if the batch size is not positive
+   * @throws IllegalStateException if the records differ in more than their parameters
+   */
+  public Result executeBatch(DatabaseContext database, SQLDialect dialect, int batchSize)
+      throws IllegalArgumentException, IllegalStateException {
+    Set<String> columns = columnNames();
+    StringBuilder sql = new StringBuilder();
+    List<Object> header = new ArrayList<>();
+    buildHeader(dialect, columns, sql, header);
+
+    String template = null;
+    StringBuilder recordSql = new StringBuilder();
+    List<List<Object>> batch = new ArrayList<>(records.size());
+
+    for (Map<String, Exp> record : records) {
+      List<Object> params = new ArrayList<>(header);
+      recordSql.setLength(0);
+      buildRecord(dialect, columns, record, recordSql, params);
+
+      if (template == null) {
+        template = recordSql.toString();
+      } else if (!template.contentEquals(recordSql)) {
+        throw new IllegalStateException("Records must only differ in their parameters to be batched");
+      }
+      batch.add(params);
+    }
+
+    sql.append(template);
+    buildUpsert(dialect, columns, sql);
+    return database.prepareBatch(sql.toString(), batch, batchSize).execute();
+  }
+
+  public Result executeBatch(DatabaseContext database, SQLDialect dialect) {
+    return executeBatch(database, dialect, DEFAULT_BATCH_SIZE);
   }
 }
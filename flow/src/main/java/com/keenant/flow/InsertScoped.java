@@ -1,6 +1,8 @@
 package com.keenant.flow;
 
 import com.keenant.flow.exception.DatabaseException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class InsertScoped implements QueryPartBuilder {
 
@@ -42,19 +44,80 @@ public class InsertScoped implements QueryPartBuilder {
     return this;
   }
 
+  public InsertScoped with(Column<?> column, Exp value) {
+    insert.with(column, value);
+    return this;
+  }
+
   public Result execute() throws DatabaseException {
     return insert.executeAndReturn(database, dialect);
   }
 
+  /**
+   * @see Insert#executeAsync(DatabaseContext, SQLDialect)
+   */
+  public CompletableFuture<Result> executeAsync() {
+    return insert.executeAsync(database, dialect);
+  }
+
+  /**
+   * @see Insert#executeBatch(DatabaseContext, SQLDialect, int)
+   */
+  public Result executeBatch(int batchSize) throws DatabaseException {
+    return insert.executeBatch(database, dialect, batchSize);
+  }
+
+  public Result executeBatch() throws DatabaseException {
+    return insert.executeBatch(database, dialect);
+  }
+
   public InsertScoped nextRecord() {
     insert.nextRecord();
     return this;
   }
 
+  /**
+   * @see Insert#onConflict(String...)
+   */
+  public InsertScoped onConflict(String... keys) {
+    insert.onConflict(keys);
+    return this;
+  }
+
+  public InsertScoped onConflict(Column<?>... keys) {
+    insert.onConflict(keys);
+    return this;
+  }
+
+  /**
+   * @see Insert#onConflictUpdate(String...)
+   */
+  public InsertScoped onConflictUpdate(String... columns) {
+    insert.onConflictUpdate(columns);
+    return this;
+  }
+
+  public InsertScoped onConflictUpdate(Column<?>... columns) {
+    insert.onConflictUpdate(columns);
+    return this;
+  }
+
+  /**
+   * @see Insert#onConflictDoNothing()
+   */
+  public InsertScoped onConflictDoNothing() {
+    insert.onConflictDoNothing();
+    return this;
+  }
+
   public QueryPart build() {
     return insert.build(dialect);
   }
 
+  public CompiledQuery compile() {
+    return insert.compile(dialect);
+  }
+
   public DatabaseContext getDatabase() {
     return database;
   }
@@ -67,4 +130,9 @@ public class InsertScoped implements QueryPartBuilder {
   public QueryPart build(SQLDialect dialect) {
     return insert.build(dialect);
   }
+
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    insert.build(dialect, sql, params);
+  }
 }
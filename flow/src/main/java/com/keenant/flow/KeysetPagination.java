@@ -0,0 +1,157 @@
+package com.keenant.flow;
+
+import com.keenant.flow.exp.ParamExp;
+import com.keenant.flow.exp.functions.ListExp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads a select a page at a time, ordered by a unique key. Rather than skipping the records of
+ * the pages before it with an offset, each page seeks past the key of the last record of the page
+ * before it, which an index on the key finds directly, so every page costs the same to read.
+ *
+ * @see Select#paginate(DatabaseContext, SQLDialect, int, Column[])
+ */
+class KeysetPagination {
+  private final Select select;
+  private final List<Column<?>> keys;
+  private final int pageSize;
+
+  /**
+   * @param select the select, ordered by the keys
+   */
+  KeysetPagination(Select select, List<Column<?>> keys, int pageSize)
+      throws IllegalArgumentException {
+    if (keys.isEmpty()) {
+      throw new IllegalArgumentException("Keys must not be empty");
+    }
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("Page size must be positive");
+    }
+
+    this.select = select;
+    this.keys = keys;
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * @return the stream of pages, each fetched when the stream reaches it
+   */
+  Stream<List<Record>> stream(DatabaseContext database, SQLDialect dialect) {
+    return StreamSupport.stream(new PageSpliterator(database, dialect), false);
+  }
+
+  /**
+   * Build the query for the page after a key.
+   *
+   * @param last the values of the keys of the last record of the page before, or null for the
+   * first page
+   */
+  private QueryPart build(SQLDialect dialect, Object[] last) {
+    Select page = select;
+    if (last != null) {
+      page = select.cpy().where(seek(last));
+    }
+
+    StringBuilder sql = new StringBuilder();
+    List<Object> params = new ArrayList<>();
+    page.build(dialect, sql, params);
+    dialect.limit(sql, params, (long) pageSize, null);
+    return new QueryPart(sql.toString(), params);
+  }
+
+  /**
+   * @return a filter of the records after a key, {@code (k) > (?)}, or {@code (k1, k2) > (?, ?)}
+   * comparing rows of values
+   */
+  private Filter seek(Object[] last) {
+    if (keys.size() == 1) {
+      return keys.get(0).gt(last[0]);
+    }
+
+    List<Exp> values = new ArrayList<>(last.length);
+    for (Object value : last) {
+      values.add(new ParamExp(value));
+    }
+    return new ListExp(new ArrayList<>(keys)).gt(new ListExp(values));
+  }
+
+  /**
+   * Fetches the next page when the stream advances, carrying the key of its last record forward.
+   */
+  private class PageSpliterator extends Spliterators.AbstractSpliterator<List<Record>> {
+    private final DatabaseContext database;
+    private final SQLDialect dialect;
+
+    /**
+     * The indexes of the keys in the records, found when the first page is fetched.
+     */
+    private int[] indexes;
+    private Object[] last;
+    private boolean done;
+
+    private PageSpliterator(DatabaseContext database, SQLDialect dialect) {
+      super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+      this.database = database;
+      this.dialect = dialect;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super List<Record>> action) {
+      if (done) {
+        return false;
+      }
+
+      List<Record> page = new ArrayList<>(pageSize);
+      try (EagerCursor cursor = database.fetch(build(dialect, last))) {
+        if (indexes == null) {
+          indexes = findKeys(cursor.fields());
+        }
+        while (cursor.moveNext()) {
+          page.add(cursor.detach());
+        }
+      }
+
+      if (page.size() < pageSize) {
+        done = true;
+      }
+      if (page.isEmpty()) {
+        return false;
+      }
+
+      Record record = page.get(page.size() - 1);
+      last = new Object[indexes.length];
+      for (int i = 0; i < indexes.length; i++) {
+        String name = keys.get(i).getName();
+        last[i] = record.get(indexes[i]).orElseThrow(
+            () -> new IllegalStateException("Key " + name + " must not be null"));
+      }
+
+      action.accept(page);
+      return true;
+    }
+
+    /**
+     * Find the keys in the fields of the records. A key selected more than once, such as
+     * {@code id} from both sides of a join, would seek by whichever comes last, so it is refused.
+     */
+    private int[] findKeys(ResultFields fields) throws IllegalStateException {
+      int[] indexes = new int[keys.size()];
+      for (int i = 0; i < indexes.length; i++) {
+        String name = keys.get(i).getName();
+        Integer index = fields.index(name);
+        if (index == null || fields.isAmbiguous(name)) {
+          throw new IllegalStateException(
+              "Key " + name + " must be selected once, under its own name");
+        }
+        indexes[i] = index;
+      }
+      return indexes;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.keenant.flow;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the fields of each query's results, by SQL, so cursors over the same query share them
+ * rather than reading them from the result metadata every time.
+ *
+ * A cached entry is read again if the result has a different number of fields, such as a
+ * {@code SELECT *} after a column was added. Other schema changes, like a renamed column, need
+ * the cache to be invalidated. When the cache is full it is emptied, as a query that builds a
+ * different SQL string each time would otherwise fill it forever.
+ *
+ * @see DatabaseContext#invalidateMetadata()
+ */
+class MetadataCache {
+
+  /**
+   * The default maximum number of queries whose fields are kept.
+   */
+  static final int DEFAULT_CAPACITY = 1024;
+
+  private final int capacity;
+  private final Map<String, ResultFields> fields;
+
+  MetadataCache(int capacity) {
+    this.capacity = capacity;
+    this.fields = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Get the fields of a query's result, reading them from its metadata if they aren't cached.
+   *
+   * @param sql the query
+   * @param resultSet the result of the query
+   * @return the fields
+   * @throws SQLException if the metadata could not be read
+   */
+  ResultFields get(String sql, ResultSet resultSet) throws SQLException {
+    ResultSetMetaData metaData = resultSet.getMetaData();
+    ResultFields cached = fields.get(sql);
+    if (cached != null && cached.size() == metaData.getColumnCount()) {
+      return cached;
+    }
+
+    ResultFields read = ResultFields.of(metaData);
+    if (fields.size() >= capacity) {
+      fields.clear();
+    }
+    fields.put(sql, read);
+    return read;
+  }
+
+  void invalidate() {
+    fields.clear();
+  }
+
+  void invalidate(String sql) {
+    fields.remove(sql);
+  }
+}
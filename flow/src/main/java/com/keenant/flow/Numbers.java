@@ -0,0 +1,76 @@
+package com.keenant.flow;
+
+import java.math.BigDecimal;
+
+/**
+ * Converts the values of records to primitives the way {@link java.sql.ResultSet#getInt(int)} and
+ * its siblings do, so a record reads the same whether it is lazy, eager or detached.
+ */
+final class Numbers {
+
+  private Numbers() {
+  }
+
+  /**
+   * @param value the value, may be null
+   * @return the value as an int, or 0 if null
+   * @throws ClassCastException if the value is neither a number, a boolean, nor a string of a
+   * number
+   */
+  static int intValue(Object value) throws ClassCastException {
+    return value instanceof Integer ? (Integer) value : (int) longValue(value);
+  }
+
+  /**
+   * @see #intValue(Object)
+   */
+  static long longValue(Object value) throws ClassCastException {
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof Boolean) {
+      return (Boolean) value ? 1 : 0;
+    }
+
+    String string = toNumericString(value);
+    try {
+      return Long.parseLong(string);
+    } catch (NumberFormatException e) {
+      return parse(value, string).longValue();
+    }
+  }
+
+  /**
+   * @see #intValue(Object)
+   */
+  static double doubleValue(Object value) throws ClassCastException {
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    if (value instanceof Boolean) {
+      return (Boolean) value ? 1 : 0;
+    }
+    return parse(value, toNumericString(value)).doubleValue();
+  }
+
+  private static String toNumericString(Object value) throws ClassCastException {
+    if (!(value instanceof CharSequence)) {
+      throw new ClassCastException(value.getClass().getName() + " is not a number");
+    }
+    return value.toString().trim();
+  }
+
+  private static BigDecimal parse(Object value, String string) throws ClassCastException {
+    try {
+      return new BigDecimal(string);
+    } catch (NumberFormatException e) {
+      throw new ClassCastException("'" + value + "' is not a number");
+    }
+  }
+}
@@ -0,0 +1,263 @@
+package com.keenant.flow;
+
+import com.keenant.flow.exception.DatabaseException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads a select in parallel, split into partitions by ranges of a numeric key. Each partition is
+ * fetched lazily on its own connection and thread, and its records are copied into a buffer that
+ * the stream reads from.
+ *
+ * @see Select#scan(DatabaseContext, SQLDialect, Column, int, boolean)
+ */
+class PartitionedScan {
+
+  /**
+   * The number of records each partition may read ahead of the stream.
+   */
+  private static final int BUFFER_SIZE = 1024;
+
+  private static final AtomicInteger SCAN_COUNT = new AtomicInteger();
+
+  /**
+   * Marks the end of a partition's records in a buffer.
+   */
+  private static final Object END = new Object();
+
+  private final Select select;
+  private final Column<? extends Number> key;
+  private final int partitions;
+  private final boolean ordered;
+
+  PartitionedScan(Select select, Column<? extends Number> key, int partitions, boolean ordered)
+      throws IllegalArgumentException {
+    if (partitions < 1) {
+      throw new IllegalArgumentException("Partitions must be positive");
+    }
+
+    this.select = select;
+    this.key = key;
+    this.partitions = partitions;
+    this.ordered = ordered;
+  }
+
+  /**
+   * Start reading every partition.
+   *
+   * @param database the database
+   * @param dialect the SQL dialect to use
+   * @param bounds a select of the minimum and maximum key
+   * @return the stream of records, which stops the partitions still being read when closed
+   */
+  Stream<Record> stream(DatabaseContext database, SQLDialect dialect, Select bounds) {
+    List<QueryPart> parts = new ArrayList<>();
+    for (Filter filter : partitionFilters(database, dialect, bounds)) {
+      parts.add(select.cpy().where(filter).build(dialect));
+    }
+
+    List<BlockingQueue<Object>> buffers = new ArrayList<>();
+    if (ordered) {
+      for (int i = 0; i < parts.size(); i++) {
+        buffers.add(new ArrayBlockingQueue<>(BUFFER_SIZE));
+      }
+    } else {
+      BlockingQueue<Object> shared = new ArrayBlockingQueue<>(BUFFER_SIZE * parts.size());
+      for (int i = 0; i < parts.size(); i++) {
+        buffers.add(shared);
+      }
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(parts.size(), threadFactory());
+    for (int i = 0; i < parts.size(); i++) {
+      QueryPart part = parts.get(i);
+      BlockingQueue<Object> buffer = buffers.get(i);
+      executor.execute(() -> read(database, part, buffer));
+    }
+    executor.shutdown();
+
+    RecordIterator iterator = new RecordIterator(buffers, executor);
+    int characteristics = Spliterator.NONNULL | (ordered ? Spliterator.ORDERED : 0);
+    return StreamSupport
+        .stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false)
+        .onClose(executor::shutdownNow);
+  }
+
+  /**
+   * Split the range of keys into filters, one per partition. Records with a null key are read by
+   * a partition of their own, which comes first (as in ascending order in SQLite and MySQL). The
+   * first and last ranges are unbounded, so that keys outside of the current range are still read.
+   */
+  private List<Filter> partitionFilters(DatabaseContext database, SQLDialect dialect,
+      Select bounds) {
+    Number min;
+    Number max;
+    try (EagerCursor cursor = database.fetch(bounds.build(dialect))) {
+      cursor.moveToFirst();
+      min = cursor.getNumber(1).orElse(null);
+      max = cursor.getNumber(2).orElse(null);
+    }
+
+    List<Filter> filters = new ArrayList<>();
+    filters.add(key.isNull());
+
+    if (min == null || max == null) {
+      return filters;
+    }
+
+    List<Number> boundaries = boundaries(min, max);
+    if (boundaries.isEmpty()) {
+      filters.add(key.isNotNull());
+      return filters;
+    }
+
+    filters.add(key.lt(boundaries.get(0)));
+    for (int i = 1; i < boundaries.size(); i++) {
+      filters.add(key.gte(boundaries.get(i - 1)).and(key.lt(boundaries.get(i))));
+    }
+    filters.add(key.gte(boundaries.get(boundaries.size() - 1)));
+    return filters;
+  }
+
+  /**
+   * @return the keys that start every partition but the first, in ascending order
+   */
+  private List<Number> boundaries(Number min, Number max) {
+    List<Number> boundaries = new ArrayList<>();
+
+    if (min instanceof Double || min instanceof Float || min instanceof BigDecimal
+        || max instanceof Double || max instanceof Float || max instanceof BigDecimal) {
+      double low = min.doubleValue();
+      double span = max.doubleValue() - low;
+      for (int i = 1; i < partitions; i++) {
+        double boundary = low + span * i / partitions;
+        if (boundary > low && (boundaries.isEmpty()
+            || boundary > boundaries.get(boundaries.size() - 1).doubleValue())) {
+          boundaries.add(boundary);
+        }
+      }
+    } else {
+      BigInteger low = BigInteger.valueOf(min.longValue());
+      BigInteger span = BigInteger.valueOf(max.longValue()).subtract(low).add(BigInteger.ONE);
+      BigInteger count = BigInteger.valueOf(partitions);
+      long previous = min.longValue();
+      for (int i = 1; i < partitions; i++) {
+        long boundary = low.add(span.multiply(BigInteger.valueOf(i)).divide(count)).longValue();
+        if (boundary > previous) {
+          boundaries.add(boundary);
+          previous = boundary;
+        }
+      }
+    }
+
+    return boundaries;
+  }
+
+  private static void read(DatabaseContext database, QueryPart part, BlockingQueue<Object> buffer) {
+    try {
+      try (Cursor cursor = database.fetchLazy(part)) {
+        while (cursor.moveNext()) {
+          buffer.put(cursor.detach());
+        }
+      } catch (Throwable e) {
+        // Errors too, or the stream would wait for the end of the partition forever
+        buffer.put(new Failure(e));
+        return;
+      }
+      buffer.put(END);
+    } catch (InterruptedException e) {
+      // The stream was closed
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static ThreadFactory threadFactory() {
+    int scan = SCAN_COUNT.incrementAndGet();
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable,
+          "flow-scan-" + scan + "-partition-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Wraps an exception or error thrown while reading a partition, to be thrown by the stream.
+   */
+  private static final class Failure {
+    private final Throwable cause;
+
+    private Failure(Throwable cause) {
+      this.cause = cause;
+    }
+  }
+
+  /**
+   * Takes records from the partition buffers, in partition order if the scan is ordered.
+   */
+  private static final class RecordIterator implements Iterator<Record> {
+    private final List<BlockingQueue<Object>> buffers;
+    private final ExecutorService executor;
+    private int remaining;
+    private int current;
+    private Record next;
+
+    private RecordIterator(List<BlockingQueue<Object>> buffers, ExecutorService executor) {
+      this.buffers = buffers;
+      this.executor = executor;
+      this.remaining = buffers.size();
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (next == null && remaining > 0) {
+        Object taken;
+        try {
+          taken = buffers.get(current).take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          executor.shutdownNow();
+          throw new DatabaseException("Interrupted while waiting for records");
+        }
+
+        if (taken == END) {
+          remaining--;
+          current = Math.min(current + 1, buffers.size() - 1);
+        } else if (taken instanceof Failure) {
+          executor.shutdownNow();
+          // Wrapped, so the stack trace shows where the stream was read, with the partition's as the
+          // cause
+          throw new DatabaseException("Failed to read a partition", ((Failure) taken).cause);
+        } else {
+          next = (Record) taken;
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public Record next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Record record = next;
+      next = null;
+      return record;
+    }
+  }
+}
@@ -0,0 +1,802 @@
+package com.keenant.flow;
+
+import com.keenant.flow.StatementCache.StatementKey;
+import com.keenant.flow.exception.DatabaseException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a bounded pool of open connections, handing them out on {@link #acquire()} and taking
+ * them back on {@link #release(Connection)} instead of closing them.
+ *
+ * Physical connections are opened and closed by a source connector, such as a
+ * {@link DefaultConnector}. Use the {@link #builder(Connector)} method to build a new pool.
+ *
+ * Borrowing and returning a connection never takes a lock: a thread first tries the connections
+ * it released most recently, then claims any idle connection from the shared list. Callers that
+ * find the pool exhausted park on a hand-off queue, which does not hold a monitor and so does not
+ * pin the carrier of a virtual thread. A release hands its connection to a parked caller if there
+ * is one, and otherwise leaves it idle without waiting, for callers to find when they next scan.
+ *
+ * If a leak timeout is configured, connections borrowed for longer than it are assumed leaked: they
+ * are closed and their slots freed, so a caller that never returns its connection cannot exhaust
+ * the pool for good.
+ *
+ * A released connection is reset before anyone else can borrow it: an open transaction is rolled
+ * back and the auto-commit, read-only and isolation settings it was opened with are restored. A
+ * connection that cannot be reset is closed instead.
+ *
+ * Callers are handed a new wrapper around the physical connection on each borrow: closing it
+ * returns the connection to the pool, after which the wrapper fails instead of reaching the next
+ * borrower's connection. If a statement cache size is configured, closed prepared statements are
+ * kept open and re-used the next time the same SQL is prepared on that connection.
+ */
+public class PooledConnector implements Connector {
+
+  private static final int LOCAL_CAPACITY = 16;
+  private static final long WAIT_SLICE = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final Connector source;
+  private final int minSize;
+  private final int maxSize;
+  private final long idleTimeout;
+  private final long acquireTimeout;
+  private final long leakTimeout;
+  private final boolean validateOnBorrow;
+  private final int validationTimeout;
+  private final int statementCacheSize;
+
+  private final CopyOnWriteArrayList<PooledEntry> shared = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<List<PooledEntry>> local = ThreadLocal.withInitial(ArrayList::new);
+  private final SynchronousQueue<PooledEntry> handoff = new SynchronousQueue<>(true);
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final AtomicInteger parked = new AtomicInteger();
+  private final ScheduledExecutorService housekeeper;
+  private volatile boolean closed;
+
+  private final LongAdder acquireCount = new LongAdder();
+  private final LongAdder acquireTimeoutCount = new LongAdder();
+  private final LongAdder leakCount = new LongAdder();
+  private final LongAdder acquireWaitNanos = new LongAdder();
+  private final AtomicLong maxAcquireWaitNanos = new AtomicLong();
+  private final LongAdder statementCacheHits = new LongAdder();
+  private final LongAdder statementCacheMisses = new LongAdder();
+
+  private PooledConnector(Connector source, int minSize, int maxSize, long idleTimeout,
+      long acquireTimeout, long leakTimeout, boolean validateOnBorrow, int validationTimeout,
+      int statementCacheSize) {
+    if (source == null) {
+      throw new IllegalArgumentException("Source connector must not be null");
+    }
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Max size must be at least 1");
+    }
+    if (minSize < 0 || minSize > maxSize) {
+      throw new IllegalArgumentException("Min size must be between 0 and max size");
+    }
+    if (statementCacheSize < 0) {
+      throw new IllegalArgumentException("Statement cache size must not be negative");
+    }
+
+    this.source = source;
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+    this.idleTimeout = idleTimeout;
+    this.acquireTimeout = acquireTimeout;
+    this.leakTimeout = leakTimeout;
+    this.validateOnBorrow = validateOnBorrow;
+    this.validationTimeout = validationTimeout;
+    this.statementCacheSize = statementCacheSize;
+
+    if (idleTimeout > 0 || leakTimeout > 0) {
+      long shortest = idleTimeout <= 0 ? leakTimeout
+          : leakTimeout <= 0 ? idleTimeout : Math.min(idleTimeout, leakTimeout);
+      long period = Math.max(shortest / 2, 100);
+      housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "flow-pool-housekeeper");
+        thread.setDaemon(true);
+        return thread;
+      });
+      housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    } else {
+      housekeeper = null;
+    }
+
+    fill();
+  }
+
+  /**
+   * @return the number of connections currently open, both idle and borrowed
+   */
+  public int getSize() {
+    return size.get();
+  }
+
+  /**
+   * @return the number of open connections waiting to be borrowed
+   */
+  public int getIdleCount() {
+    int count = 0;
+    for (PooledEntry entry : shared) {
+      if (entry.state.get() == PooledEntry.IDLE) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return the number of callers currently waiting for a connection
+   */
+  public int getPendingCount() {
+    return waiters.get();
+  }
+
+  /**
+   * @return the number of connections handed out by {@link #acquire()} so far
+   */
+  public long getAcquireCount() {
+    return acquireCount.sum();
+  }
+
+  /**
+   * @return the number of calls to {@link #acquire()} that gave up waiting for a connection
+   */
+  public long getAcquireTimeoutCount() {
+    return acquireTimeoutCount.sum();
+  }
+
+  /**
+   * @return the number of borrowed connections closed because they were held longer than the leak
+   * timeout
+   */
+  public long getLeakCount() {
+    return leakCount.sum();
+  }
+
+  /**
+   * @param unit the unit of the returned time
+   * @return the total time callers spent in {@link #acquire()}
+   */
+  public long getTotalAcquireWait(TimeUnit unit) {
+    return unit.convert(acquireWaitNanos.sum(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @param unit the unit of the returned time
+   * @return the longest time a single caller spent in {@link #acquire()}
+   */
+  public long getMaxAcquireWait(TimeUnit unit) {
+    return unit.convert(maxAcquireWaitNanos.get(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return the number of prepared statements that were re-used from a statement cache
+   */
+  public long getStatementCacheHits() {
+    return statementCacheHits.sum();
+  }
+
+  /**
+   * @return the number of prepared statements that had to be prepared because they were not in a
+   * statement cache
+   */
+  public long getStatementCacheMisses() {
+    return statementCacheMisses.sum();
+  }
+
+  @Override
+  public Connection acquire() throws DatabaseException {
+    long start = System.nanoTime();
+    long deadline = start + TimeUnit.MILLISECONDS.toNanos(acquireTimeout);
+
+    while (true) {
+      PooledEntry entry = borrow(deadline);
+
+      if (entry == null) {
+        acquireTimeoutCount.increment();
+        throw new DatabaseException("Timed out waiting for a connection");
+      }
+
+      if (!validateOnBorrow || entry.fresh || isValid(entry.connection)) {
+        entry.fresh = false;
+        recordWait(System.nanoTime() - start);
+        return new Borrow(entry).proxy;
+      }
+      remove(entry);
+    }
+  }
+
+  @Override
+  public void release(Connection connection) {
+    if (connection == null) {
+      throw new IllegalArgumentException("Connection was null");
+    }
+
+    Borrow borrow = borrowOf(connection);
+    if (borrow == null) {
+      throw new IllegalArgumentException("Connection does not belong to this pool");
+    }
+    if (!borrow.end()) {
+      // Already released, the connection may have been borrowed again since
+      return;
+    }
+
+    PooledEntry entry = borrow.entry;
+    entry.lastUsed = System.nanoTime();
+    if (!closed && !isClosed(entry.connection) && reset(entry)
+        && entry.state.compareAndSet(PooledEntry.BORROWED, PooledEntry.IDLE)) {
+      // Keep it for this thread only if no one is waiting, so it does not jump the queue
+      if (!offer(entry)) {
+        List<PooledEntry> list = local.get();
+        if (list.size() < LOCAL_CAPACITY) {
+          list.add(entry);
+        }
+      }
+      return;
+    }
+
+    // The connection is closed, broken or was reclaimed as leaked. Its statements are closed here
+    // rather than when it was reclaimed, as only the borrower's thread may use them.
+    boolean removed = entry.state.compareAndSet(PooledEntry.BORROWED, PooledEntry.REMOVED);
+    entry.closeStatements();
+    if (removed) {
+      discard(entry);
+    }
+  }
+
+  /**
+   * Close the idle connections and stop handing out new ones. Connections that are still borrowed
+   * are closed as they are released.
+   */
+  @Override
+  public void releaseAll() {
+    closed = true;
+
+    if (housekeeper != null) {
+      housekeeper.shutdownNow();
+    }
+
+    for (PooledEntry entry : shared) {
+      if (entry.state.compareAndSet(PooledEntry.IDLE, PooledEntry.REMOVED)) {
+        entry.closeStatements();
+        discard(entry);
+      }
+    }
+  }
+
+  /**
+   * Close connections that have been idle for longer than the idle timeout, while keeping at
+   * least the minimum number of connections open.
+   */
+  public void evictIdle() {
+    if (idleTimeout <= 0) {
+      return;
+    }
+
+    long now = System.nanoTime();
+    long timeout = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+
+    for (PooledEntry entry : shared) {
+      if (size.get() <= minSize) {
+        break;
+      }
+      if (now - entry.lastUsed >= timeout
+          && entry.state.compareAndSet(PooledEntry.IDLE, PooledEntry.REMOVED)) {
+        entry.closeStatements();
+        discard(entry);
+      }
+    }
+
+    fill();
+  }
+
+  /**
+   * Close connections that have been borrowed for longer than the leak timeout, freeing their slots
+   * for new connections. The borrower's wrapper fails from then on. Its cached statements are left
+   * for the borrower to close when it returns the wrapper, as the borrower may still be using them.
+   */
+  public void reclaimLeaked() {
+    if (leakTimeout <= 0) {
+      return;
+    }
+
+    long now = System.nanoTime();
+    long timeout = TimeUnit.MILLISECONDS.toNanos(leakTimeout);
+
+    for (PooledEntry entry : shared) {
+      if (now - entry.borrowedAt >= timeout
+          && entry.state.compareAndSet(PooledEntry.BORROWED, PooledEntry.REMOVED)) {
+        leakCount.increment();
+        discard(entry);
+      }
+    }
+
+    fill();
+  }
+
+  /**
+   * Claim a connection, opening a new one or waiting for one to be released if needed.
+   *
+   * @param deadline the {@link System#nanoTime()} after which to give up
+   * @return the claimed entry, or null if the deadline passed
+   */
+  private PooledEntry borrow(long deadline) throws DatabaseException {
+    ensureOpen();
+
+    // Connections this thread released recently are likely idle and hot
+    List<PooledEntry> list = local.get();
+    for (int i = list.size() - 1; i >= 0; i--) {
+      PooledEntry entry = list.remove(i);
+      if (claim(entry)) {
+        return entry;
+      }
+    }
+
+    // A connection released just as we park may not be handed over, so waits are sliced short
+    // enough to find it on the next scan
+    waiters.incrementAndGet();
+    try {
+      while (true) {
+        for (PooledEntry entry : shared) {
+          if (claim(entry)) {
+            return entry;
+          }
+        }
+
+        PooledEntry opened = tryOpen();
+        if (opened != null) {
+          return opened;
+        }
+
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return null;
+        }
+
+        PooledEntry entry = null;
+        parked.incrementAndGet();
+        try {
+          // A release that checked for parked callers before we counted ourselves left its
+          // connection idle, so look again before parking
+          for (PooledEntry idle : shared) {
+            if (claim(idle)) {
+              return idle;
+            }
+          }
+          entry = handoff.poll(Math.min(remaining, WAIT_SLICE), TimeUnit.NANOSECONDS);
+        } finally {
+          parked.decrementAndGet();
+        }
+        if (entry != null && claim(entry)) {
+          return entry;
+        }
+        ensureOpen();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DatabaseException("Interrupted while waiting for a connection");
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  /**
+   * Borrow an idle connection, if no one else has yet.
+   *
+   * @return true if the connection was claimed
+   */
+  private boolean claim(PooledEntry entry) {
+    if (entry.state.get() != PooledEntry.IDLE) {
+      return false;
+    }
+    // Set first, so the entry is never borrowed with an old time; losing the race only delays
+    // reclaiming the winner's connection by a moment
+    entry.borrowedAt = System.nanoTime();
+    return entry.state.compareAndSet(PooledEntry.IDLE, PooledEntry.BORROWED);
+  }
+
+  /**
+   * Hand an idle connection to a caller parked waiting for one, if there is one. This never blocks
+   * or spins: if no caller takes it at once, the connection stays idle in the shared list.
+   *
+   * @return true if a caller was parked
+   */
+  private boolean offer(PooledEntry entry) {
+    if (parked.get() > 0) {
+      handoff.offer(entry);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Open a new, borrowed connection if the pool has not reached its maximum size.
+   *
+   * @return the entry, or null if the pool is full
+   */
+  private PooledEntry tryOpen() throws DatabaseException {
+    while (true) {
+      int current = size.get();
+      if (current >= maxSize) {
+        return null;
+      }
+      if (size.compareAndSet(current, current + 1)) {
+        return open(PooledEntry.BORROWED);
+      }
+    }
+  }
+
+  /**
+   * Open connections until the pool holds at least the minimum number of connections.
+   */
+  private void fill() {
+    while (!closed) {
+      int current = size.get();
+      if (current >= minSize) {
+        return;
+      }
+      if (size.compareAndSet(current, current + 1)) {
+        offer(open(PooledEntry.IDLE));
+      }
+    }
+  }
+
+  /**
+   * Open a new connection for a slot that has already been reserved.
+   *
+   * @param state the state of the new entry
+   * @return the pool entry
+   */
+  private PooledEntry open(int state) throws DatabaseException {
+    Connection connection;
+    try {
+      connection = source.acquire();
+    } catch (RuntimeException e) {
+      size.decrementAndGet();
+      throw e;
+    }
+
+    PooledEntry entry;
+    try {
+      entry = new PooledEntry(connection, state);
+    } catch (SQLException e) {
+      size.decrementAndGet();
+      try {
+        source.release(connection);
+      } catch (RuntimeException ignored) {
+        // Ignore, the connection is unusable either way
+      }
+      throw new DatabaseException(e);
+    }
+    shared.add(entry);
+    return entry;
+  }
+
+  private void housekeep() {
+    try {
+      reclaimLeaked();
+      evictIdle();
+    } catch (RuntimeException e) {
+      // Ignore, the database may be unreachable for now, try again next time
+    }
+  }
+
+  private void remove(PooledEntry entry) {
+    entry.state.set(PooledEntry.REMOVED);
+    entry.closeStatements();
+    discard(entry);
+  }
+
+  /**
+   * Forget about and close a connection that has been marked as removed. Its statement cache is
+   * left alone, since it may only be touched by the thread that owns the entry.
+   */
+  private void discard(PooledEntry entry) {
+    if (shared.remove(entry)) {
+      size.decrementAndGet();
+      try {
+        source.release(entry.connection);
+      } catch (RuntimeException e) {
+        // Ignore, the connection is gone either way
+      }
+    }
+  }
+
+  private Borrow borrowOf(Connection connection) {
+    if (Proxy.isProxyClass(connection.getClass())) {
+      InvocationHandler handler = Proxy.getInvocationHandler(connection);
+      if (handler instanceof Borrow && ((Borrow) handler).getPool() == this) {
+        return (Borrow) handler;
+      }
+    }
+    return null;
+  }
+
+  private void recordWait(long nanos) {
+    acquireCount.increment();
+    acquireWaitNanos.add(nanos);
+    long max;
+    while (nanos > (max = maxAcquireWaitNanos.get())) {
+      if (maxAcquireWaitNanos.compareAndSet(max, nanos)) {
+        break;
+      }
+    }
+  }
+
+  private void ensureOpen() throws DatabaseException {
+    if (closed) {
+      throw new DatabaseException("Connection pool has been closed");
+    }
+  }
+
+  private boolean isValid(Connection connection) {
+    try {
+      return connection.isValid(validationTimeout);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Undo what the borrower changed on a connection: roll back its open transaction and restore
+   * the auto-commit, read-only and isolation settings the connection was opened with.
+   *
+   * @return true if the connection was reset, false if it should be discarded
+   */
+  private boolean reset(PooledEntry entry) {
+    Connection connection = entry.connection;
+    try {
+      boolean autoCommit = connection.getAutoCommit();
+      if (!autoCommit) {
+        connection.rollback();
+      }
+      if (autoCommit != entry.autoCommit) {
+        connection.setAutoCommit(entry.autoCommit);
+      }
+      if (connection.isReadOnly() != entry.readOnly) {
+        connection.setReadOnly(entry.readOnly);
+      }
+      if (connection.getTransactionIsolation() != entry.isolation) {
+        connection.setTransactionIsolation(entry.isolation);
+      }
+      return true;
+    } catch (SQLException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  private boolean isClosed(Connection connection) {
+    try {
+      return connection.isClosed();
+    } catch (SQLException e) {
+      return true;
+    }
+  }
+
+  public static Builder builder(Connector source) {
+    return new Builder(source);
+  }
+
+  /**
+   * A physical connection in the pool.
+   */
+  private final class PooledEntry {
+    private static final int IDLE = 0;
+    private static final int BORROWED = 1;
+    private static final int REMOVED = -1;
+
+    private final Connection connection;
+    private final StatementCache statements;
+    private final AtomicInteger state;
+
+    /**
+     * The settings the connection was opened with, restored when it is released.
+     */
+    private final boolean autoCommit;
+    private final boolean readOnly;
+    private final int isolation;
+
+    private volatile long lastUsed = System.nanoTime();
+    private volatile long borrowedAt = System.nanoTime();
+
+    /**
+     * True if the connection was opened for the caller borrowing it, so there is no need to
+     * validate it.
+     */
+    private volatile boolean fresh;
+
+    private PooledEntry(Connection connection, int state) throws SQLException {
+      this.connection = connection;
+      this.autoCommit = connection.getAutoCommit();
+      this.readOnly = connection.isReadOnly();
+      this.isolation = connection.getTransactionIsolation();
+      this.statements = statementCacheSize == 0 ? null :
+          new StatementCache(statementCacheSize, statementCacheHits, statementCacheMisses);
+      this.state = new AtomicInteger(state);
+      this.fresh = state == BORROWED;
+    }
+
+    /**
+     * Close the cached statements, by the thread that borrowed the connection or that marked it as
+     * removed while it was idle.
+     */
+    private void closeStatements() {
+      if (statements != null) {
+        statements.closeAll();
+      }
+    }
+  }
+
+  /**
+   * A single borrow of a pooled connection, and the handler of the wrapper handed out for it. Once
+   * the borrow has ended, the wrapper fails and releasing it again does nothing, even if the
+   * connection has been borrowed again since.
+   */
+  private final class Borrow implements InvocationHandler {
+    private final PooledEntry entry;
+    private final Connection proxy;
+    private final AtomicBoolean ended = new AtomicBoolean();
+
+    private Borrow(PooledEntry entry) {
+      this.entry = entry;
+      this.proxy = (Connection) Proxy.newProxyInstance(
+          Connection.class.getClassLoader(),
+          new Class<?>[] {Connection.class},
+          this
+      );
+    }
+
+    private PooledConnector getPool() {
+      return PooledConnector.this;
+    }
+
+    /**
+     * @return true if the borrow was ended by this call
+     */
+    private boolean end() {
+      return ended.compareAndSet(false, true);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "PooledConnection(" + entry.connection + ")";
+        case "close":
+          release(this.proxy);
+          return null;
+        case "isClosed":
+          return ended.get() || entry.connection.isClosed();
+        default:
+          break;
+      }
+
+      if (ended.get()) {
+        throw new SQLException("Connection has been returned to the pool");
+      }
+      if (entry.state.get() != PooledEntry.BORROWED) {
+        throw new SQLException("Connection was reclaimed after the leak timeout");
+      }
+
+      if (entry.statements != null && method.getName().equals("prepareStatement")) {
+        StatementKey key = StatementKey.of(method, args);
+        if (key != null) {
+          return entry.statements.prepare(entry.connection, this.proxy, key);
+        }
+      }
+      return StatementCache.delegate(entry.connection, method, args);
+    }
+  }
+
+  public static final class Builder {
+
+    private final Connector source;
+    private int minSize = 0;
+    private int maxSize = 10;
+    private long idleTimeout = TimeUnit.MINUTES.toMillis(10);
+    private long acquireTimeout = TimeUnit.SECONDS.toMillis(30);
+    private long leakTimeout = 0;
+    private boolean validateOnBorrow = true;
+    private int validationTimeout = 5;
+    private int statementCacheSize = 0;
+
+    private Builder(Connector source) {
+      this.source = source;
+    }
+
+    /**
+     * @param minSize the number of connections kept open, even when idle
+     */
+    public Builder minSize(int minSize) {
+      this.minSize = minSize;
+      return this;
+    }
+
+    /**
+     * @param maxSize the maximum number of connections open at once
+     */
+    public Builder maxSize(int maxSize) {
+      this.maxSize = maxSize;
+      return this;
+    }
+
+    /**
+     * @param idleTimeout how long a connection may sit idle before it is closed, zero to never
+     * evict idle connections
+     */
+    public Builder idleTimeout(long idleTimeout, TimeUnit unit) {
+      this.idleTimeout = unit.toMillis(idleTimeout);
+      return this;
+    }
+
+    /**
+     * @param acquireTimeout how long {@link PooledConnector#acquire()} waits for a connection
+     * when the pool is exhausted
+     */
+    public Builder acquireTimeout(long acquireTimeout, TimeUnit unit) {
+      this.acquireTimeout = unit.toMillis(acquireTimeout);
+      return this;
+    }
+
+    /**
+     * @param leakTimeout how long a connection may be borrowed before it is assumed leaked, closed
+     * and its slot freed, zero to never reclaim borrowed connections. It should be longer than any
+     * query or lazy cursor is expected to hold a connection.
+     */
+    public Builder leakTimeout(long leakTimeout, TimeUnit unit) {
+      this.leakTimeout = unit.toMillis(leakTimeout);
+      return this;
+    }
+
+    /**
+     * @param validateOnBorrow true to check that idle connections are still alive before they are
+     * handed out
+     */
+    public Builder validateOnBorrow(boolean validateOnBorrow) {
+      this.validateOnBorrow = validateOnBorrow;
+      return this;
+    }
+
+    /**
+     * @param validationTimeout seconds to wait for a connection to be validated
+     */
+    public Builder validationTimeout(int validationTimeout) {
+      this.validationTimeout = validationTimeout;
+      return this;
+    }
+
+    /**
+     * @param statementCacheSize the number of prepared statements kept open per connection, zero
+     * to close statements as soon as they are closed by the caller
+     */
+    public Builder statementCacheSize(int statementCacheSize) {
+      this.statementCacheSize = statementCacheSize;
+      return this;
+    }
+
+    public PooledConnector build() {
+      return new PooledConnector(source, minSize, maxSize, idleTimeout, acquireTimeout,
+          leakTimeout, validateOnBorrow, validationTimeout, statementCacheSize);
+    }
+  }
+}
@@ -2,23 +2,75 @@ package com.keenant.flow;
 
 import com.keenant.flow.exception.DatabaseException;
 import com.keenant.flow.jdbc.QueryType;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class Query implements AutoCloseable {
   private final PreparedStatement statement;
   private final QueryType type;
   private final Runnable releaser;
+  private final List<QueryPart> batch;
+  private final int batchSize;
+  private final MetadataCache metadata;
+  private final String sql;
+
+  /**
+   * The statement being executed, which differs from the first during a batch with more than one
+   * SQL string.
+   */
+  private volatile PreparedStatement executing;
 
   public Query(PreparedStatement statement, QueryType type, Runnable releaser) {
+    this(statement, type, null, 0, null, null, releaser);
+  }
+
+  /**
+   * Construct a fetch query, whose result fields are shared with earlier results of the same SQL.
+   *
+   * @param statement the statement
+   * @param metadata the cache of result fields
+   * @param sql the SQL of the statement
+   * @param releaser releases the connection
+   */
+  Query(PreparedStatement statement, MetadataCache metadata, String sql, Runnable releaser) {
+    this(statement, QueryType.FETCH, null, 0, metadata, sql, releaser);
+  }
+
+  /**
+   * Construct a batch query, which executes each of its query parts in turn. Consecutive parts
+   * with the same SQL are sent to the database together, as a JDBC batch.
+   *
+   * @param statement the statement for the SQL of the first part, without any parameters set
+   * @param batch the query parts
+   * @param batchSize the maximum number of executions sent to the database at once
+   * @param releaser releases the connection
+   */
+  public Query(PreparedStatement statement, List<QueryPart> batch, int batchSize,
+      Runnable releaser) {
+    this(statement, QueryType.BATCH, batch, batchSize, null, null, releaser);
+  }
+
+  private Query(PreparedStatement statement, QueryType type, List<QueryPart> batch,
+      int batchSize, MetadataCache metadata, String sql, Runnable releaser) {
     this.statement = statement;
     this.type = type;
+    this.batch = batch;
+    this.batchSize = batchSize;
+    this.metadata = metadata;
+    this.sql = sql;
     this.releaser = releaser;
+    this.executing = statement;
   }
 
   /**
-   * Execute this query on the database.
+   * Execute this query on the database. If execution fails, this query is closed, releasing its
+   * connection.
    *
    * @return the result of execution
    */
@@ -30,18 +82,164 @@ public class Query implements AutoCloseable {
       switch (type) {
         case FETCH:
           resultSet = statement.executeQuery();
+          if (metadata != null) {
+            return new Result(statement, resultSet, metadata.get(sql, resultSet), releaser);
+          }
           break;
         case UPDATE:
           statement.executeUpdate();
           resultSet = statement.getResultSet();
           generated = statement.getGeneratedKeys();
           break;
+        case BATCH:
+          return executeBatch();
         default:
           throw new IllegalStateException("Invalid query mode");
       }
 
       return new Result(statement, resultSet, generated, releaser);
     } catch (SQLException e) {
+      close();
+      throw new DatabaseException(e);
+    } catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Send the batch to the database in chunks of at most the batch size. A part with different SQL
+   * than the one before it sends the current chunk, and is prepared as a new statement on the same
+   * connection. If the connection is in auto-commit mode, the whole batch is committed as one
+   * transaction once every chunk has been executed, and rolled back if any chunk fails, so a batch
+   * either lands completely or not at all.
+   *
+   * The records generated by every chunk are read as the chunks are executed. Drivers differ in
+   * what they return for a batch: MySQL returns a key for each execution, SQLite only the last.
+   */
+  private Result executeBatch() throws SQLException {
+    Connection connection = statement.getConnection();
+    boolean autoCommit = connection.getAutoCommit();
+    SafeEagerCursor generated = null;
+
+    if (autoCommit) {
+      connection.setAutoCommit(false);
+    }
+
+    PreparedStatement current = statement;
+    String sql = batch.isEmpty() ? null : batch.get(0).getSql();
+    int pending = 0;
+
+    try {
+      for (QueryPart part : batch) {
+        if (!part.getSql().equals(sql)) {
+          generated = flush(current, pending, generated);
+          pending = 0;
+          if (current != statement) {
+            current.close();
+          }
+          sql = part.getSql();
+          current = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+          current.setQueryTimeout(statement.getQueryTimeout());
+          executing = current;
+        }
+
+        DatabaseContext.setParams(current, part.getParams());
+        current.addBatch();
+        pending++;
+
+        if (pending == batchSize) {
+          generated = flush(current, pending, generated);
+          pending = 0;
+        }
+      }
+      generated = flush(current, pending, generated);
+
+      if (autoCommit) {
+        connection.commit();
+      }
+    } catch (SQLException | RuntimeException e) {
+      if (autoCommit) {
+        connection.rollback();
+      }
+      throw e;
+    } finally {
+      executing = statement;
+      if (current != statement) {
+        current.close();
+      }
+      if (autoCommit) {
+        connection.setAutoCommit(true);
+      }
+    }
+
+    if (generated != null) {
+      generated.complete();
+    }
+    return new Result(statement, generated, releaser);
+  }
+
+  /**
+   * Execute the pending batch of a statement, and read the records it generated.
+   *
+   * @return the generated records so far
+   */
+  private SafeEagerCursor flush(PreparedStatement current, int pending, SafeEagerCursor generated)
+      throws SQLException {
+    if (pending == 0) {
+      return generated;
+    }
+
+    current.executeBatch();
+
+    ResultSet keys = current.getGeneratedKeys();
+    if (keys != null) {
+      if (generated == null) {
+        generated = new SafeEagerCursor(statement, keys, releaser);
+      }
+      generated.append(keys);
+    }
+    return generated;
+  }
+
+  /**
+   * Execute this query on an executor. If the executor rejects it, or the future is cancelled
+   * before it runs, this query is closed instead, and if the future is cancelled while it runs,
+   * the result is closed once it is ready.
+   *
+   * @param executor the executor
+   * @return the future result of execution
+   * @see DatabaseContext#async(java.util.function.Supplier)
+   */
+  public CompletableFuture<Result> executeAsync(Executor executor) {
+    return Threads.async(executor, this::execute, this::close);
+  }
+
+  /**
+   * Cancel this query while it is being executed, from another thread. The thread executing it
+   * gets a {@link DatabaseException}, if the driver and database support cancelling. Does nothing
+   * if the query has already been closed.
+   *
+   * @throws DatabaseException if the query could not be cancelled
+   */
+  public void cancel() throws DatabaseException {
+    cancel(executing);
+  }
+
+  /**
+   * Cancel a statement, unless it has been closed.
+   */
+  static void cancel(Statement statement) throws DatabaseException {
+    try {
+      statement.cancel();
+    } catch (SQLException e) {
+      try {
+        if (statement.isClosed()) {
+          return;
+        }
+      } catch (SQLException ignored) {
+        // Report the original exception
+      }
       throw new DatabaseException(e);
     }
   }
@@ -22,6 +22,20 @@ public class QueryPart {
     this(sql, Arrays.asList(params));
   }
 
+  /**
+   * Construct a query part by appending all of it into a single string builder and parameter list.
+   *
+   * @param builder the query part builder
+   * @param dialect the SQL dialect to use
+   * @return the query part
+   */
+  public static QueryPart of(QueryPartBuilder builder, SQLDialect dialect) {
+    StringBuilder sql = new StringBuilder();
+    List<Object> params = new ArrayList<>();
+    builder.build(dialect, sql, params);
+    return new QueryPart(sql.toString(), params);
+  }
+
   public String getSql() {
     return sql;
   }
@@ -1,5 +1,7 @@
 package com.keenant.flow;
 
+import java.util.List;
+
 /**
  * Something that can construct a part of a parameterized query.
  */
@@ -12,4 +14,19 @@ public interface QueryPartBuilder {
    * @return the SQL query component
    */
   QueryPart build(SQLDialect dialect);
+
+  /**
+   * Append the SQL query part to a query that is being built, instead of constructing a new part.
+   * Building a whole query this way shares one string builder and one parameter list between all
+   * of its parts.
+   *
+   * @param dialect the SQL dialect to use
+   * @param sql the SQL built so far
+   * @param params the parameters built so far
+   */
+  default void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    QueryPart part = build(dialect);
+    sql.append(part.getSql());
+    params.addAll(part.getParams());
+  }
 }
@@ -0,0 +1,332 @@
+package com.keenant.flow;
+
+import com.keenant.flow.exception.DatabaseException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+/**
+ * A lazy cursor that reads records from the result set on another thread, while the records read
+ * before them are being processed. Records are copied into a bounded buffer, in chunks so the
+ * threads don't hand over every record on its own; once the buffer is full, the reader waits for
+ * the cursor to catch up.
+ *
+ * The result set is only used by the reader, so the cursor can be moved and read on any thread,
+ * one at a time. Closing the cursor stops the reader before the connection is released, which
+ * waits for the record the reader is fetching, if any.
+ *
+ * @see com.keenant.flow.jdbc.FetchConfig.Builder#readAhead(Integer)
+ */
+public class ReadAheadCursor extends Cursor {
+
+  /**
+   * Reads each cursor on a new virtual thread where the runtime has them, or else on a cached pool
+   * of daemon threads, as asynchronous queries run.
+   */
+  public static final Executor DEFAULT_EXECUTOR = Threads.DEFAULT_EXECUTOR;
+
+  /**
+   * Marks the end of the records in the buffer.
+   */
+  private static final Object END = new Object();
+
+  /**
+   * The number of chunks the buffer is split into. Records are handed to the cursor a chunk at a
+   * time, rather than one by one, unless the cursor is waiting for them.
+   */
+  private static final int CHUNKS = 8;
+
+  private final ResultFields fields;
+  private final int chunkSize;
+  private final BlockingQueue<List<Object>> buffer;
+  private List<Object> chunk = Collections.emptyList();
+  private int position;
+  private final CountDownLatch stopped = new CountDownLatch(1);
+  private final Object lock = new Object();
+
+  private boolean started;
+  private volatile boolean closed;
+  private volatile boolean waiting;
+  private boolean finished;
+  private Row current;
+
+  /**
+   * Construct the cursor and start reading records.
+   *
+   * @param statement the executed statement
+   * @param resultSet the result set to read
+   * @param releaser releases the connection
+   * @param bufferSize the maximum number of records read ahead of the cursor
+   * @param executor runs the reader, which blocks while the buffer is full
+   * @throws IllegalArgumentException if the buffer size is not positive
+   */
+  public ReadAheadCursor(PreparedStatement statement, ResultSet resultSet, Runnable releaser,
+      int bufferSize, Executor executor) throws IllegalArgumentException {
+    this(statement, resultSet, releaser, null, bufferSize, executor);
+  }
+
+  ReadAheadCursor(PreparedStatement statement, ResultSet resultSet, Runnable releaser,
+      ResultFields fields, int bufferSize, Executor executor) throws IllegalArgumentException {
+    super(statement, resultSet, releaser, fields);
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("Buffer size must be positive");
+    }
+
+    this.fields = fields();
+    this.chunkSize = Math.max(1, bufferSize / CHUNKS);
+    this.buffer = new ArrayBlockingQueue<>((bufferSize + chunkSize - 1) / chunkSize);
+    executor.execute(this::read);
+  }
+
+  private void read() {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      started = true;
+    }
+
+    List<Object> pending = new ArrayList<>(chunkSize);
+    try {
+      try {
+        while (!closed) {
+          // The next fetch may wait on the database, so a waiting cursor gets what has been read
+          if (waiting && !pending.isEmpty()) {
+            buffer.put(pending);
+            pending = new ArrayList<>(chunkSize);
+          }
+          if (!super.fetchNext()) {
+            break;
+          }
+          pending.add(new Row(fields, super.toArray()));
+
+          if (pending.size() == chunkSize) {
+            buffer.put(pending);
+            pending = new ArrayList<>(chunkSize);
+          }
+        }
+        pending.add(END);
+      } catch (InterruptedException e) {
+        throw e;
+      } catch (Throwable e) {
+        pending.add(new Failure(e));
+      }
+      if (!closed) {
+        buffer.put(pending);
+      }
+    } catch (InterruptedException e) {
+      // The executor is shutting down
+      fail(new Failure(new DatabaseException("Interrupted while reading records")));
+      Thread.currentThread().interrupt();
+    } catch (Throwable e) {
+      fail(new Failure(e));
+    } finally {
+      stopped.countDown();
+    }
+  }
+
+  /**
+   * Hand a failure to the cursor without blocking. If the buffer is full, the records in it are
+   * dropped to make room, as the cursor would otherwise wait for records that never come.
+   */
+  private void fail(Failure failure) {
+    List<Object> chunk = Collections.singletonList(failure);
+    if (!closed && !buffer.offer(chunk)) {
+      // Only the reader adds to the buffer, so there is room once it is cleared
+      buffer.clear();
+      buffer.offer(chunk);
+    }
+  }
+
+  @Override
+  boolean fetchNext() {
+    if (finished) {
+      return false;
+    }
+
+    if (position == chunk.size()) {
+      chunk = takeChunk();
+      position = 0;
+    }
+    Object next = chunk.get(position++);
+
+    if (next == END) {
+      finished = true;
+      current = null;
+      return false;
+    }
+    if (next instanceof Failure) {
+      finished = true;
+      current = null;
+      throw ((Failure) next).toException();
+    }
+
+    current = (Row) next;
+    return true;
+  }
+
+  private List<Object> takeChunk() {
+    List<Object> next = buffer.poll();
+    if (next != null) {
+      return next;
+    }
+
+    waiting = true;
+    try {
+      return buffer.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DatabaseException("Interrupted while waiting for records");
+    } finally {
+      waiting = false;
+    }
+  }
+
+  private Row getCurrent() throws NoSuchElementException {
+    if (current == null) {
+      throw new NoSuchElementException();
+    }
+    return current;
+  }
+
+  @Override
+  public Optional<Object> get(int index) throws NoSuchElementException {
+    return getCurrent().get(index);
+  }
+
+  @Override
+  public int getIntValue(int index) throws NoSuchElementException {
+    return getCurrent().getIntValue(index);
+  }
+
+  @Override
+  public long getLongValue(int index) throws NoSuchElementException {
+    return getCurrent().getLongValue(index);
+  }
+
+  @Override
+  public double getDoubleValue(int index) throws NoSuchElementException {
+    return getCurrent().getDoubleValue(index);
+  }
+
+  @Override
+  public boolean wasNull() {
+    return getCurrent().wasNull();
+  }
+
+  /**
+   * @return the current record, which is already a copy
+   */
+  @Override
+  public Row detach() {
+    return getCurrent();
+  }
+
+  @Override
+  public boolean hasField(int index) {
+    return index >= 1 && index <= fields.size();
+  }
+
+  @Override
+  public int getFieldCount() {
+    return fields.size();
+  }
+
+  @Override
+  public Object[] toArray() throws NoSuchElementException {
+    return getCurrent().toArray();
+  }
+
+  @Override
+  public boolean hasField(String label) throws IllegalArgumentException {
+    if (label == null) {
+      throw new IllegalArgumentException();
+    }
+    return fields.index(label) != null;
+  }
+
+  @Override
+  public int getFieldIndex(String label) throws IllegalArgumentException, NoSuchElementException {
+    if (label == null) {
+      throw new IllegalArgumentException();
+    }
+
+    Integer index = fields.index(label);
+    if (index == null) {
+      throw new NoSuchElementException();
+    }
+    return index;
+  }
+
+  @Override
+  public String getFieldLabel(int index) throws NoSuchElementException {
+    if (!hasField(index)) {
+      throw new NoSuchElementException();
+    }
+    return fields.label(index);
+  }
+
+  /**
+   * Stop the reader, waiting for it to finish reading its current record, then close the result
+   * set and release the connection.
+   */
+  @Override
+  public void close() {
+    boolean reading;
+    synchronized (lock) {
+      closed = true;
+      reading = started;
+    }
+
+    if (reading) {
+      // Once closed, the reader puts at most one more chunk, so clearing the buffer unblocks it
+      buffer.clear();
+
+      boolean interrupted = false;
+      while (true) {
+        try {
+          stopped.await();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    buffer.clear();
+    chunk = Collections.emptyList();
+    position = 0;
+    current = null;
+    finished = true;
+    super.close();
+  }
+
+  /**
+   * Wraps an exception or error thrown while reading records, to be thrown by the cursor.
+   */
+  private static final class Failure {
+    private final Throwable cause;
+
+    private Failure(Throwable cause) {
+      this.cause = cause;
+    }
+
+    private RuntimeException toException() {
+      if (cause instanceof RuntimeException) {
+        return (RuntimeException) cause;
+      }
+      return new DatabaseException("Failed to read records", cause);
+    }
+  }
+}
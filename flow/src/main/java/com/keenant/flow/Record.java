@@ -40,7 +40,8 @@ public interface Record {
   int getFieldIndex(String label) throws IllegalArgumentException, NoSuchElementException;
 
   /**
-   * Get a field label by its index.
+   * Get a field label by its index. Every field has a label, even if another field has the same
+   * one.
    *
    * @param index the field index
    * @return the field
@@ -48,8 +49,28 @@ public interface Record {
    */
   String getFieldLabel(int index) throws NoSuchElementException;
 
+  /**
+   * @return the number of fields
+   */
+  int getFieldCount();
+
   Map<Integer, Object> toIndexMap();
 
+  /**
+   * Copy the values of every field, by label, in field order. If more than one field has the same
+   * label, the last of them is kept.
+   *
+   * @return the values by label
+   */
+  Map<String, Object> toLabelMap();
+
+  /**
+   * Copy the values of every field, in field order (the value of field 1 is at index 0).
+   *
+   * @return the values
+   */
+  Object[] toArray();
+
   <T, U> Optional<U> get(int field, Transformer<T, U> transformer)
       throws NoSuchElementException, ClassCastException;
 
@@ -132,6 +153,45 @@ public interface Record {
   long getNonNullLong(String label)
       throws NoSuchElementException, ClassCastException, IllegalStateException;
 
+  /**
+   * Get a numeric field as an int, without boxing it. Like {@link java.sql.ResultSet#getInt(int)},
+   * a null value is read as 0, so check {@link #wasNull()} afterwards if the field is nullable.
+   *
+   * @param index the field index
+   * @return the value, or 0 if null
+   * @throws NoSuchElementException if the field is not present
+   * @throws ClassCastException if the value is neither a number, a boolean, nor a string of a
+   * number, which every kind of record converts as the result set would (a lazy cursor leaves
+   * other values to the driver, which may read them as 0 instead)
+   */
+  int getIntValue(int index) throws NoSuchElementException, ClassCastException;
+
+  int getIntValue(String label) throws NoSuchElementException, ClassCastException;
+
+  /**
+   * Get a numeric field as a long, without boxing it. A null value is read as 0.
+   *
+   * @see #getIntValue(int)
+   */
+  long getLongValue(int index) throws NoSuchElementException, ClassCastException;
+
+  long getLongValue(String label) throws NoSuchElementException, ClassCastException;
+
+  /**
+   * Get a numeric field as a double, without boxing it. A null value is read as 0.
+   *
+   * @see #getIntValue(int)
+   */
+  double getDoubleValue(int index) throws NoSuchElementException, ClassCastException;
+
+  double getDoubleValue(String label) throws NoSuchElementException, ClassCastException;
+
+  /**
+   * @return true if the last field read by {@link #getIntValue(int)}, {@link #getLongValue(int)} or
+   * {@link #getDoubleValue(int)} was null
+   */
+  boolean wasNull();
+
   Optional<Boolean> getBoolean(int index) throws NoSuchElementException, ClassCastException;
 
   Optional<Boolean> getBoolean(String label) throws NoSuchElementException, ClassCastException;
@@ -0,0 +1,300 @@
+package com.keenant.flow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the records of a cursor to subscribers, as they request them. The cursor is only
+ * advanced for records that have been requested, and each record is detached and handed to the
+ * subscriber as soon as it is read, so no more than the requested records are held at a time.
+ * The cursor, and so its connection, is closed when the last record has been published, when
+ * reading fails, or when the subscription is cancelled.
+ *
+ * This is not a {@code java.util.concurrent.Flow.Publisher}, as that interface only exists on Java
+ * 9+ and this library targets Java 8; nor a Reactive Streams publisher, to avoid the dependency.
+ * Its own {@link Subscriber} and {@link Subscription} interfaces have the same methods and follow
+ * the same rules, but they are distinct types. Bridging to either takes a small adapter class
+ * written by the caller: a {@link Subscriber} that forwards its four signals to the other
+ * subscriber, handing it a subscription that forwards {@code request} and {@code cancel} to this
+ * publisher's {@link Subscription}.
+ *
+ * Records are read on the thread that requests them, unless the publisher has an executor, in
+ * which case they are read on the executor and requesting never blocks.
+ *
+ * @param <T> the type of item, a record or a batch of records
+ * @see Cursor#publisher()
+ * @see SelectScoped#publisher()
+ */
+public class RecordPublisher<T> {
+  private final Cursor cursor;
+  private final Supplier<Cursor> opener;
+  private final Function<Cursor, T> reader;
+  private final Executor executor;
+  private final AtomicBoolean subscribed;
+
+  /**
+   * @param cursor the cursor to publish to one subscriber, or null to open one per subscriber
+   * @param opener opens a cursor for each subscription, when its first records are requested
+   * @param reader reads the next item of a cursor, or null if there are no more records
+   * @param executor the executor to read records on, or null for the requesting thread
+   */
+  private RecordPublisher(Cursor cursor, Supplier<Cursor> opener, Function<Cursor, T> reader,
+      Executor executor) {
+    this.cursor = cursor;
+    this.opener = opener;
+    this.reader = reader;
+    this.executor = executor;
+    this.subscribed = new AtomicBoolean();
+  }
+
+  /**
+   * Publish the records of a cursor to one subscriber.
+   */
+  static RecordPublisher<Record> of(Cursor cursor, Executor executor) {
+    return new RecordPublisher<>(cursor, null, RecordPublisher::readRecord, executor);
+  }
+
+  /**
+   * Publish batches of the records of a cursor to one subscriber.
+   */
+  static RecordPublisher<List<Record>> batched(Cursor cursor, int size, Executor executor)
+      throws IllegalArgumentException {
+    return new RecordPublisher<>(cursor, null, batchReader(size), executor);
+  }
+
+  /**
+   * Publish the records of a query, which is fetched again for each subscriber.
+   */
+  static RecordPublisher<Record> of(Supplier<Cursor> opener, Executor executor) {
+    return new RecordPublisher<>(null, opener, RecordPublisher::readRecord, executor);
+  }
+
+  /**
+   * Publish batches of the records of a query, which is fetched again for each subscriber.
+   */
+  static RecordPublisher<List<Record>> batched(Supplier<Cursor> opener, int size,
+      Executor executor) throws IllegalArgumentException {
+    return new RecordPublisher<>(null, opener, batchReader(size), executor);
+  }
+
+  private static Record readRecord(Cursor cursor) {
+    return cursor.moveNext() ? cursor.detach() : null;
+  }
+
+  private static Function<Cursor, List<Record>> batchReader(int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Batch size must be positive: " + size);
+    }
+    return cursor -> {
+      List<Record> batch = new ArrayList<>(size);
+      while (batch.size() < size && cursor.moveNext()) {
+        batch.add(cursor.detach());
+      }
+      return batch.isEmpty() ? null : batch;
+    };
+  }
+
+  /**
+   * Subscribe to the records. The subscriber is given its subscription right away, but the query
+   * is not executed until records are requested. A publisher of a cursor fails every subscriber
+   * after the first with an {@link IllegalStateException}.
+   *
+   * @param subscriber the subscriber
+   * @throws NullPointerException if the subscriber is null
+   */
+  public void subscribe(Subscriber<? super T> subscriber) throws NullPointerException {
+    if (subscriber == null) {
+      throw new NullPointerException("subscriber");
+    }
+
+    if (cursor != null && subscribed.getAndSet(true)) {
+      subscriber.onSubscribe(new Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+      });
+      subscriber.onError(
+          new IllegalStateException("A cursor can only be published to one subscriber"));
+      return;
+    }
+
+    subscriber.onSubscribe(new RecordSubscription(subscriber, cursor));
+  }
+
+  /**
+   * Receives the records of a publisher, like {@code java.util.concurrent.Flow.Subscriber}.
+   *
+   * @param <T> the type of item
+   */
+  public interface Subscriber<T> {
+
+    void onSubscribe(Subscription subscription);
+
+    void onNext(T item);
+
+    void onError(Throwable throwable);
+
+    void onComplete();
+  }
+
+  /**
+   * Requests records from a publisher, like {@code java.util.concurrent.Flow.Subscription}.
+   */
+  public interface Subscription {
+
+    /**
+     * Request more items. Requests add up, and a total of {@link Long#MAX_VALUE} or more
+     * requests every item.
+     *
+     * @param n the number of items, which must be positive or the subscription fails
+     */
+    void request(long n);
+
+    /**
+     * Stop publishing items and close the cursor, as soon as the item being read (if any) has
+     * been read.
+     */
+    void cancel();
+  }
+
+  /**
+   * A subscription, which reads and publishes items in a loop that runs on one thread at a time.
+   * Requests and cancellation signal the loop, starting it if it isn't running, and it keeps
+   * running until it has handled every signal, so the cursor is only used by one thread at a
+   * time and items are never published concurrently.
+   */
+  private class RecordSubscription implements Subscription, Runnable {
+    private final Subscriber<? super T> subscriber;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger signals = new AtomicInteger();
+
+    private volatile boolean cancelled;
+    private volatile Throwable invalid;
+
+    /**
+     * Only used by the loop.
+     */
+    private Cursor cursor;
+    private boolean done;
+
+    private RecordSubscription(Subscriber<? super T> subscriber, Cursor cursor) {
+      this.subscriber = subscriber;
+      this.cursor = cursor;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalid = new IllegalArgumentException("Requested a non-positive number of items: " + n);
+      } else {
+        requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+      }
+      signal();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      signal();
+    }
+
+    private void signal() {
+      if (signals.getAndIncrement() != 0) {
+        // The loop is running, and will see this signal
+        return;
+      }
+
+      if (executor == null) {
+        run();
+        return;
+      }
+
+      try {
+        executor.execute(this);
+      } catch (RuntimeException e) {
+        // Nothing else can run the loop while the signal is held
+        finish();
+        if (!cancelled) {
+          subscriber.onError(e);
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      int missed = 1;
+      while (!done) {
+        if (cancelled) {
+          finish();
+          return;
+        }
+        if (invalid != null) {
+          finish();
+          subscriber.onError(invalid);
+          return;
+        }
+
+        long limit = requested.get();
+        long emitted = 0;
+        while (emitted != limit && !cancelled && invalid == null) {
+          T item;
+          try {
+            if (cursor == null) {
+              cursor = opener.get();
+            }
+            item = reader.apply(cursor);
+          } catch (Throwable e) {
+            finish();
+            subscriber.onError(e);
+            return;
+          }
+
+          if (item == null) {
+            finish();
+            subscriber.onComplete();
+            return;
+          }
+
+          try {
+            subscriber.onNext(item);
+          } catch (RuntimeException | Error e) {
+            // The subscriber broke its contract, so its subscription is cancelled
+            finish();
+            throw e;
+          }
+          emitted++;
+        }
+
+        if (emitted != 0 && limit != Long.MAX_VALUE) {
+          requested.addAndGet(-emitted);
+        }
+
+        missed = signals.addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Close the cursor, if it was given or opened. Later signals never start the loop again.
+     */
+    private void finish() {
+      done = true;
+      if (cursor != null) {
+        cursor.close();
+        cursor = null;
+      }
+    }
+  }
+}
@@ -3,35 +3,90 @@ package com.keenant.flow;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.Executor;
 
 public class Result implements AutoCloseable {
   private final PreparedStatement statement;
   private final ResultSet resultSet;
   private final ResultSet generated;
   private final Runnable releaser;
+  private final EagerCursor generatedRecords;
+  private final ResultFields fields;
 
   public Result(PreparedStatement statement, ResultSet resultSet, ResultSet generated, Runnable releaser) {
+    this(statement, resultSet, generated, null, null, releaser);
+  }
+
+  /**
+   * Construct the result of a fetch, whose fields are already known.
+   *
+   * @param statement the executed statement
+   * @param resultSet the fetched records
+   * @param fields the fields of the result, shared by its cursors
+   * @param releaser releases the connection
+   */
+  Result(PreparedStatement statement, ResultSet resultSet, ResultFields fields,
+      Runnable releaser) {
+    this(statement, resultSet, null, null, fields, releaser);
+  }
+
+  /**
+   * Construct the result of a batch, whose generated records have already been read.
+   *
+   * @param statement the executed statement
+   * @param generatedRecords the records generated by every execution, or null if none
+   * @param releaser releases the connection
+   */
+  Result(PreparedStatement statement, EagerCursor generatedRecords, Runnable releaser) {
+    this(statement, null, null, generatedRecords, null, releaser);
+  }
+
+  private Result(PreparedStatement statement, ResultSet resultSet, ResultSet generated,
+      EagerCursor generatedRecords, ResultFields fields, Runnable releaser) {
     this.statement = statement;
     this.resultSet = resultSet;
     this.generated = generated;
+    this.generatedRecords = generatedRecords;
+    this.fields = fields;
     this.releaser = releaser;
   }
 
   public Cursor lazyCursor() {
-    return new Cursor(statement, resultSet, releaser);
+    return new Cursor(statement, resultSet, releaser, fields);
+  }
+
+  /**
+   * @param bufferSize the maximum number of records read ahead of the cursor
+   * @param executor runs the reader, or null for a new daemon thread
+   * @return a lazy cursor that reads records on another thread
+   * @see ReadAheadCursor
+   */
+  public Cursor readAheadCursor(int bufferSize, Executor executor) {
+    return new ReadAheadCursor(statement, resultSet, releaser, fields, bufferSize,
+        executor == null ? ReadAheadCursor.DEFAULT_EXECUTOR : executor);
   }
 
   public EagerCursor eagerCursor() {
-    return new EagerCursor(statement, resultSet, releaser);
+    return new EagerCursor(statement, resultSet, releaser, fields);
   }
 
   public EagerCursor safeEagerCursor() {
-    SafeEagerCursor cursor = new SafeEagerCursor(statement, resultSet, releaser);
+    return populate();
+  }
+
+  /**
+   * Read every record into memory, releasing the connection.
+   */
+  SafeEagerCursor populate() {
+    SafeEagerCursor cursor = new SafeEagerCursor(statement, resultSet, releaser, fields);
     cursor.populateAndClose();
     return cursor;
   }
 
   public Cursor generatedCursor() throws IllegalStateException {
+    if (generatedRecords != null) {
+      return generatedRecords;
+    }
     if (generated == null) {
       throw new IllegalStateException("No generated records/fields");
     }
@@ -0,0 +1,330 @@
+package com.keenant.flow;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the records of queries in memory, by SQL and parameters, so that fetching the same query
+ * again doesn't go to the database. Each fetch of a cached query gets its own cursor over the
+ * same records, which are never changed.
+ *
+ * The least recently used results are evicted once there are too many of them or they hold too
+ * many records in total, and results expire after their time to live. Updates through the
+ * {@link DatabaseContext} that has this cache evict the results of every query that reads from a
+ * table the update writes to. Tables are found in the SQL: those following {@code FROM} or
+ * {@code JOIN} in a query, and the table of an {@code INSERT}, {@code UPDATE} or
+ * {@code DELETE}. Any other update, such as a schema change, evicts every result. Changes the
+ * SQL doesn't show, like those of triggers, cascades or other applications, are only seen once
+ * results expire or are invalidated.
+ *
+ * @see DatabaseContext#setResultCache(ResultCache)
+ * @see DatabaseContext#fetchCached(String, Collection)
+ */
+public final class ResultCache {
+  private static final String NAME =
+      "([`\"\\[]?[\\w$]+[`\"\\]]?(?:\\.[`\"\\[]?[\\w$]+[`\"\\]]?)*)";
+
+  /**
+   * A table read by a query, after which more tables may follow, separated by commas.
+   */
+  private static final Pattern READ = Pattern.compile(
+      "\\b(?:FROM|JOIN)\\s+" + NAME, Pattern.CASE_INSENSITIVE);
+
+  /**
+   * The next of a list of tables, after an optional alias.
+   */
+  private static final Pattern READ_NEXT = Pattern.compile(
+      "\\G(?:\\s+(?:AS\\s+)?(?!(?:WHERE|GROUP|ORDER|HAVING|LIMIT|OFFSET|UNION|INTERSECT|EXCEPT"
+          + "|JOIN|INNER|LEFT|RIGHT|FULL|CROSS|NATURAL|ON|USING|WINDOW|FOR)\\b)[\\w$]+)?"
+          + "\\s*,\\s*" + NAME, Pattern.CASE_INSENSITIVE);
+
+  private static final Pattern WRITE = Pattern.compile(
+      "^\\s*(?:(?:INSERT|REPLACE)(?:\\s+OR\\s+\\w+)?(?:\\s+IGNORE)?\\s+INTO"
+          + "|UPDATE(?:\\s+OR\\s+\\w+)?(?:\\s+IGNORE)?"
+          + "|DELETE\\s+FROM)\\s+" + NAME, Pattern.CASE_INSENSITIVE);
+
+  private final int maxEntries;
+  private final long maxRecords;
+  private final long timeToLive;
+
+  /**
+   * Entries in order of access, least recent first.
+   */
+  private final LinkedHashMap<Key, Entry> entries;
+  private long records;
+
+  /**
+   * Counts invalidations, so that a query that was fetched while an update ran isn't cached.
+   */
+  private long generation;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private ResultCache(int maxEntries, long maxRecords, long timeToLive) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Max entries must be at least 1");
+    }
+    if (maxRecords < 1) {
+      throw new IllegalArgumentException("Max records must be at least 1");
+    }
+    if (timeToLive < 0) {
+      throw new IllegalArgumentException("Time to live must not be negative");
+    }
+
+    this.maxEntries = maxEntries;
+    this.maxRecords = maxRecords;
+    this.timeToLive = timeToLive;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Get a cursor over the cached records of a query.
+   *
+   * @return the cursor, or null if the query isn't cached or has expired
+   */
+  synchronized EagerCursor get(String sql, Collection<?> params) {
+    Key key = new Key(sql, params);
+    Entry entry = entries.get(key);
+    if (entry != null && timeToLive > 0 && System.nanoTime() - entry.created > timeToLive) {
+      remove(key);
+      entry = null;
+    }
+
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.records.view();
+  }
+
+  /**
+   * @return the current generation, to pass to {@link #put(String, Collection, SafeEagerCursor,
+   * long)} once the query has been fetched
+   */
+  synchronized long generation() {
+    return generation;
+  }
+
+  /**
+   * Cache the records of a query, unless anything was invalidated since it was fetched or it has
+   * more records than the cache may hold.
+   *
+   * @param records the records, read into memory
+   * @param generation the generation before the query was fetched
+   */
+  synchronized void put(String sql, Collection<?> params, SafeEagerCursor records,
+      long generation) {
+    if (generation != this.generation || records.size() > maxRecords) {
+      return;
+    }
+
+    Key key = new Key(sql, params);
+    remove(key);
+    entries.put(key, new Entry(records.view(), readTables(sql), System.nanoTime()));
+    this.records += records.size();
+
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (entries.size() > maxEntries || this.records > maxRecords) {
+      this.records -= eldest.next().records.size();
+      eldest.remove();
+    }
+  }
+
+  /**
+   * Evict the results of queries that read from the table an update writes to, or every result if
+   * the table isn't known.
+   *
+   * @param sql the update
+   */
+  void invalidateWrites(String sql) {
+    String table = writtenTable(sql);
+    if (table != null) {
+      invalidate(table);
+    } else {
+      invalidate();
+    }
+  }
+
+  /**
+   * @return the table an insert, update or delete writes to, or null for any other SQL
+   */
+  static String writtenTable(String sql) {
+    Matcher matcher = WRITE.matcher(sql);
+    return matcher.find() ? matcher.group(1) : null;
+  }
+
+  /**
+   * Evict every result.
+   */
+  public synchronized void invalidate() {
+    generation++;
+    entries.clear();
+    records = 0;
+  }
+
+  /**
+   * Evict the results of queries that read from a table, and of those whose tables aren't known.
+   *
+   * @param table the name of the table, which may be qualified or quoted
+   */
+  public synchronized void invalidate(String table) {
+    String name = normalize(table);
+    generation++;
+
+    Iterator<Entry> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      Entry entry = iterator.next();
+      if (entry.tables.isEmpty() || entry.tables.contains(name)) {
+        records -= entry.records.size();
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * @return the number of results cached
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return the number of fetches that found their results in the cache
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of fetches that went to the database
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  private void remove(Key key) {
+    Entry removed = entries.remove(key);
+    if (removed != null) {
+      records -= removed.records.size();
+    }
+  }
+
+  /**
+   * @return the tables a query reads from, empty if none were found
+   */
+  private static Set<String> readTables(String sql) {
+    Set<String> tables = new HashSet<>();
+    Matcher matcher = READ.matcher(sql);
+    while (matcher.find()) {
+      tables.add(normalize(matcher.group(1)));
+
+      Matcher next = READ_NEXT.matcher(sql).region(matcher.end(), sql.length());
+      while (next.find()) {
+        tables.add(normalize(next.group(1)));
+      }
+    }
+    return tables.isEmpty() ? Collections.emptySet() : tables;
+  }
+
+  /**
+   * @return the unqualified, unquoted and lower case name of a table
+   */
+  private static String normalize(String table) {
+    String name = table.substring(table.lastIndexOf('.') + 1);
+    return name.replaceAll("[`\"\\[\\]]", "").toLowerCase(Locale.ROOT);
+  }
+
+  private static final class Key {
+    private final String sql;
+    private final Object[] params;
+    private final int hash;
+
+    private Key(String sql, Collection<?> params) {
+      this.sql = sql;
+      this.params = params.toArray();
+      this.hash = 31 * sql.hashCode() + Arrays.deepHashCode(this.params);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return hash == other.hash && sql.equals(other.sql)
+          && Arrays.deepEquals(params, other.params);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static final class Entry {
+    private final SafeEagerCursor records;
+    private final Set<String> tables;
+    private final long created;
+
+    private Entry(SafeEagerCursor records, Set<String> tables, long created) {
+      this.records = records;
+      this.tables = tables;
+      this.created = created;
+    }
+  }
+
+  public static final class Builder {
+
+    private int maxEntries = 1000;
+    private long maxRecords = Long.MAX_VALUE;
+    private long timeToLive = 0;
+
+    private Builder() {
+    }
+
+    /**
+     * @param maxEntries the maximum number of results cached
+     */
+    public Builder maxEntries(int maxEntries) {
+      this.maxEntries = maxEntries;
+      return this;
+    }
+
+    /**
+     * @param maxRecords the maximum number of records cached, across every result
+     */
+    public Builder maxRecords(long maxRecords) {
+      this.maxRecords = maxRecords;
+      return this;
+    }
+
+    /**
+     * @param timeToLive how long a result is cached for, zero to keep results until they are
+     * evicted or invalidated
+     */
+    public Builder timeToLive(long timeToLive, TimeUnit unit) {
+      this.timeToLive = unit.toNanos(timeToLive);
+      return this;
+    }
+
+    public ResultCache build() {
+      return new ResultCache(maxEntries, maxRecords, timeToLive);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.keenant.flow;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The fields of a result: their labels and SQL types. It is immutable, so it can be shared by
+ * every cursor over results of the same query, and every row copied from them.
+ *
+ * A label used by more than one field refers to the last of them, which is how {@link Cursor}
+ * reads it. {@link SafeEagerCursor} refuses to read such labels instead, see
+ * {@link #isAmbiguous(String)}.
+ *
+ * @see MetadataCache
+ */
+final class ResultFields {
+  private final String[] labels;
+  private final int[] types;
+  private final Map<String, Integer> indexes;
+  private final Set<String> ambiguous;
+
+  ResultFields(String[] labels, int[] types) {
+    this.labels = labels;
+    this.types = types;
+    this.indexes = new HashMap<>();
+
+    Set<String> ambiguous = new HashSet<>();
+    for (int i = 0; i < labels.length; i++) {
+      if (indexes.put(labels[i], i + 1) != null) {
+        ambiguous.add(labels[i]);
+      }
+    }
+    this.ambiguous = ambiguous.isEmpty() ? Collections.emptySet() : ambiguous;
+  }
+
+  /**
+   * Read the fields of a result.
+   *
+   * @param metaData the result metadata
+   * @return the fields
+   * @throws SQLException if the metadata could not be read
+   */
+  static ResultFields of(ResultSetMetaData metaData) throws SQLException {
+    int count = metaData.getColumnCount();
+    String[] labels = new String[count];
+    int[] types = new int[count];
+    for (int i = 0; i < count; i++) {
+      labels[i] = metaData.getColumnLabel(i + 1);
+      types[i] = metaData.getColumnType(i + 1);
+    }
+    return new ResultFields(labels, types);
+  }
+
+  int size() {
+    return labels.length;
+  }
+
+  String label(int index) {
+    return labels[index - 1];
+  }
+
+  /**
+   * @return the SQL type of a field, see {@link java.sql.Types}
+   */
+  int type(int index) {
+    return types[index - 1];
+  }
+
+  /**
+   * @return the index of the last field with a label, or null if there is none
+   */
+  Integer index(String label) {
+    return indexes.get(label);
+  }
+
+  /**
+   * @return true if more than one field has a label
+   */
+  boolean isAmbiguous(String label) {
+    return ambiguous.contains(label);
+  }
+}
@@ -0,0 +1,76 @@
+package com.keenant.flow;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * A record copied out of a cursor, which can still be read after the cursor has moved on or been
+ * closed. See {@link Cursor#detach()}.
+ */
+public class Row extends AbstractRecord {
+  private final ResultFields fields;
+  private final Object[] values;
+
+  Row(ResultFields fields, Object[] values) {
+    this.fields = fields;
+    this.values = values;
+  }
+
+  @Override
+  public boolean hasField(int index) {
+    return index >= 1 && index <= values.length;
+  }
+
+  @Override
+  public int getFieldCount() {
+    return values.length;
+  }
+
+  @Override
+  public boolean hasField(String label) throws IllegalArgumentException {
+    if (label == null) {
+      throw new IllegalArgumentException();
+    }
+    return fields.index(label) != null;
+  }
+
+  @Override
+  public int getFieldIndex(String label) throws IllegalArgumentException, NoSuchElementException {
+    if (label == null) {
+      throw new IllegalArgumentException();
+    }
+
+    Integer index = fields.index(label);
+    if (index == null) {
+      throw new NoSuchElementException();
+    }
+    return index;
+  }
+
+  @Override
+  public String getFieldLabel(int index) throws NoSuchElementException {
+    if (!hasField(index)) {
+      throw new NoSuchElementException();
+    }
+    return fields.label(index);
+  }
+
+  @Override
+  public Optional<Object> get(int index) throws NoSuchElementException {
+    if (!hasField(index)) {
+      throw new NoSuchElementException();
+    }
+    return Optional.ofNullable(values[index - 1]);
+  }
+
+  @Override
+  public Object[] toArray() {
+    return values.clone();
+  }
+
+  @Override
+  public String toString() {
+    return "Row(" + Arrays.toString(values) + ")";
+  }
+}
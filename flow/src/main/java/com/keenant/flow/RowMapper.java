@@ -0,0 +1,62 @@
+package com.keenant.flow;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Maps records to objects. A mapper is bound to the fields of a result once, before its first
+ * record is mapped, so that it can look up field indexes ahead of time rather than per record.
+ *
+ * A lambda is a mapper that reads each record itself, for example
+ * {@code cursor.stream(record -> new User(record.getNonNullString(1), record.getIntValue(2)))}.
+ *
+ * @param <T> the type of object
+ * @see Cursor#stream(RowMapper)
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+  /**
+   * Create a mapper that constructs objects of a class from the fields with matching names.
+   * Field labels match names regardless of case and underscores, so {@code first_name} sets
+   * {@code firstName}. Objects are built with, in order of preference:
+   *
+   * <ul>
+   *   <li>the canonical constructor of a record class (Java 16+)</li>
+   *   <li>the constructor with the most parameters that all have a matching field, if its
+   *   parameter names were compiled in ({@code javac -parameters})</li>
+   *   <li>the no argument constructor, then setters ({@code setName}) or else fields for every
+   *   name that has a matching field</li>
+   * </ul>
+   *
+   * Constructors, setters and fields are bound through method handles, and {@code int},
+   * {@code long} and {@code double} values are read without boxing. A null value leaves a
+   * primitive at 0.
+   *
+   * @param type the class
+   * @param <T> the type of object
+   * @return the mapper
+   * @throws IllegalArgumentException if the class can't be constructed by any of the above
+   */
+  static <T> RowMapper<T> of(Class<T> type) throws IllegalArgumentException {
+    return new BeanMapper<>(type);
+  }
+
+  /**
+   * Prepare to map the records of a result.
+   *
+   * @param fields a record of the result, for its field labels
+   * @return the mapper to map each record of the result with, this mapper by default
+   * @throws NoSuchElementException if the result lacks a field the mapper needs
+   */
+  default RowMapper<T> bind(Record fields) throws NoSuchElementException {
+    return this;
+  }
+
+  /**
+   * Map a record.
+   *
+   * @param record the record
+   * @return the object
+   */
+  T map(Record record);
+}
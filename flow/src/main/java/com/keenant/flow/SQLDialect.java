@@ -1,35 +1,170 @@
 package com.keenant.flow;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.function.Function;
 
+/**
+ * Describes how queries are written and executed for a database. Use the {@link #builder()} method
+ * to build a new dialect.
+ */
 public class SQLDialect {
 
   /**
-   * SQLite SQL dialect.
+   * Limits with {@code LIMIT ? OFFSET ?}, as SQLite, MySQL and Postgres do. A query with only an
+   * offset is limited to {@link Long#MAX_VALUE} records, as MySQL needs a limit before an offset.
    */
-  public static final SQLDialect SQLITE = new SQLDialect(
-      "SQLite",
-      str -> '"' + str + '"',
-      false
-  );
+  public static final LimitWriter LIMIT_OFFSET = (sql, params, limit, offset) -> {
+    if (limit == null && offset == null) {
+      return;
+    }
+    sql.append(" LIMIT ?");
+    params.add(limit == null ? Long.MAX_VALUE : limit);
+    if (offset != null) {
+      sql.append(" OFFSET ?");
+      params.add(offset);
+    }
+  };
 
   /**
-   * MySQL SQL dialect.
+   * Limits with the standard {@code OFFSET ? ROWS FETCH NEXT ? ROWS ONLY}, as SQL Server, Oracle
+   * and Derby do. Some databases only allow it after an {@code ORDER BY}.
    */
-  public static final SQLDialect MYSQL = new SQLDialect(
-      "MySQL",
-      str -> '`' + str + '`',
-      true
-  );
+  public static final LimitWriter OFFSET_FETCH = (sql, params, limit, offset) -> {
+    if (limit == null && offset == null) {
+      return;
+    }
+    sql.append(" OFFSET ? ROWS");
+    params.add(offset == null ? 0L : offset);
+    if (limit != null) {
+      sql.append(" FETCH NEXT ? ROWS ONLY");
+      params.add(limit);
+    }
+  };
+
+  /**
+   * Upserts with {@code ON CONFLICT (k) DO UPDATE SET c = excluded.c}, as SQLite (3.24 and later)
+   * and Postgres do. The conflict keys must match a unique index or primary key. If there are no
+   * columns to update, conflicting records are skipped with {@code DO NOTHING}, which needs no keys,
+   * as any conflict then skips the record.
+   */
+  public static final UpsertWriter ON_CONFLICT = (sql, keys, columns) -> {
+    if (keys.isEmpty() && !columns.isEmpty()) {
+      throw new IllegalStateException("Upserts that update must name the keys that conflict");
+    }
+    sql.append(" ON CONFLICT");
+    if (!keys.isEmpty()) {
+      sql.append(" (");
+      sql.append(String.join(",", keys));
+      sql.append(")");
+    }
+
+    if (columns.isEmpty()) {
+      sql.append(" DO NOTHING");
+      return;
+    }
+    sql.append(" DO UPDATE SET ");
+    for (String column : columns) {
+      sql.append(column).append(" = excluded.").append(column).append(",");
+    }
+    sql.deleteCharAt(sql.length() - 1);
+  };
+
+  /**
+   * Upserts with {@code ON DUPLICATE KEY UPDATE c = VALUES(c)}, as MySQL does. The keys are not
+   * written, as any unique index or primary key conflicts, and if there are no columns to update,
+   * the first key is set to itself so conflicting records are left as they are.
+   */
+  public static final UpsertWriter ON_DUPLICATE_KEY = (sql, keys, columns) -> {
+    if (columns.isEmpty() && keys.isEmpty()) {
+      throw new IllegalStateException("Upserts must update a column or name a key");
+    }
+    sql.append(" ON DUPLICATE KEY UPDATE ");
+    if (columns.isEmpty()) {
+      String key = keys.iterator().next();
+      sql.append(key).append(" = ").append(key);
+      return;
+    }
+    for (String column : columns) {
+      sql.append(column).append(" = VALUES(").append(column).append("),");
+    }
+    sql.deleteCharAt(sql.length() - 1);
+  };
+
+  /**
+   * SQLite SQL dialect. SQLite is compiled with a limit of 999 parameters per statement by default,
+   * and without {@code LIMIT} on deletes, so limited deletes select the rowids to delete.
+   */
+  public static final SQLDialect SQLITE = SQLDialect.builder()
+      .name("SQLite")
+      .fieldWrapper(str -> '"' + str + '"')
+      .scrolling(false)
+      .maxParameters(999)
+      .rowId("rowid")
+      .upsertWriter(ON_CONFLICT)
+      .build();
+
+  /**
+   * MySQL SQL dialect. Connector/J only streams a result when its fetch size is
+   * {@link Integer#MIN_VALUE}. Statements are limited to 65535 parameters, and to the server's
+   * {@code max_allowed_packet}, which defaults to 4MB.
+   */
+  public static final SQLDialect MYSQL = SQLDialect.builder()
+      .name("MySQL")
+      .fieldWrapper(str -> '`' + str + '`')
+      .scrolling(true)
+      .streamingFetchSize(Integer.MIN_VALUE)
+      .maxParameters(65535)
+      .maxPacketSize(4 * 1024 * 1024)
+      .upsertWriter(ON_DUPLICATE_KEY)
+      .build();
 
   private final String name;
   private final Function<String, String> fieldWrapper;
   private final boolean scrolling;
+  private final Integer streamingFetchSize;
+  private final Integer maxParameters;
+  private final Integer maxPacketSize;
+  private final LimitWriter limitWriter;
+  private final String rowId;
+  private final UpsertWriter upsertWriter;
 
   public SQLDialect(String name, Function<String, String> fieldWrapper, boolean scrolling) {
+    this(name, fieldWrapper, scrolling, null, null, null, LIMIT_OFFSET, null, null);
+  }
+
+  private SQLDialect(String name, Function<String, String> fieldWrapper, boolean scrolling,
+      Integer streamingFetchSize, Integer maxParameters, Integer maxPacketSize,
+      LimitWriter limitWriter, String rowId, UpsertWriter upsertWriter) {
+    if (name == null) {
+      throw new IllegalArgumentException("Name must not be null");
+    }
+    if (fieldWrapper == null) {
+      throw new IllegalArgumentException("Field wrapper must not be null");
+    }
+    if (limitWriter == null) {
+      throw new IllegalArgumentException("Limit writer must not be null");
+    }
+    if (maxParameters != null && maxParameters < 1) {
+      throw new IllegalArgumentException("Max parameters must be positive");
+    }
+    if (maxPacketSize != null && maxPacketSize < 1) {
+      throw new IllegalArgumentException("Max packet size must be positive");
+    }
+
     this.name = name;
     this.fieldWrapper = fieldWrapper;
     this.scrolling = scrolling;
+    this.streamingFetchSize = streamingFetchSize;
+    this.maxParameters = maxParameters;
+    this.maxPacketSize = maxPacketSize;
+    this.limitWriter = limitWriter;
+    this.rowId = rowId;
+    this.upsertWriter = upsertWriter;
+  }
+
+  public String getName() {
+    return name;
   }
 
   public String wrapField(String field) {
@@ -39,4 +174,209 @@ public class SQLDialect {
   public boolean supportsScrolling() {
     return scrolling;
   }
+
+  /**
+   * @return the fetch size that makes the driver stream a result, or null if streaming needs no
+   * special fetch size
+   */
+  public Integer getStreamingFetchSize() {
+    return streamingFetchSize;
+  }
+
+  /**
+   * @return the most parameters a single statement may have, or null if there is no limit
+   */
+  public Integer getMaxParameters() {
+    return maxParameters;
+  }
+
+  /**
+   * @return the most bytes a single statement may be sent to the database in, or null if there is
+   * no limit
+   */
+  public Integer getMaxPacketSize() {
+    return maxPacketSize;
+  }
+
+  /**
+   * Append a clause that limits the records of a query, after its {@code ORDER BY}.
+   *
+   * @param sql the SQL built so far
+   * @param params the parameters built so far
+   * @param limit the most records to return, or null for no limit
+   * @param offset the number of records to skip, or null to skip none
+   */
+  public void limit(StringBuilder sql, List<Object> params, Long limit, Long offset) {
+    limitWriter.write(sql, params, limit, offset);
+  }
+
+  /**
+   * @return the column that identifies each row of every table, which limited deletes select the
+   * rows to delete by, or null if deletes are limited directly
+   */
+  public String getRowId() {
+    return rowId;
+  }
+
+  /**
+   * @return true if inserts can update the records they conflict with
+   */
+  public boolean supportsUpsert() {
+    return upsertWriter != null;
+  }
+
+  /**
+   * Append the clause that makes an insert update the records it conflicts with, after its values.
+   *
+   * @param sql the SQL built so far
+   * @param keys the columns of the unique index or primary key that conflicts
+   * @param columns the columns to update with the inserted values
+   * @throws IllegalStateException if this dialect does not support upserts, or needs keys or
+   * columns that are missing
+   */
+  public void upsert(StringBuilder sql, Collection<String> keys, Collection<String> columns)
+      throws IllegalStateException {
+    if (upsertWriter == null) {
+      throw new IllegalStateException(name + " does not support upserts");
+    }
+    upsertWriter.write(sql, keys, columns);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Writes the clause that limits the records of a query.
+   *
+   * @see #LIMIT_OFFSET
+   * @see #OFFSET_FETCH
+   */
+  @FunctionalInterface
+  public interface LimitWriter {
+
+    /**
+     * @param sql the SQL built so far
+     * @param params the parameters built so far
+     * @param limit the most records to return, or null for no limit
+     * @param offset the number of records to skip, or null to skip none
+     */
+    void write(StringBuilder sql, List<Object> params, Long limit, Long offset);
+  }
+
+  /**
+   * Writes the clause that makes an insert update the records it conflicts with.
+   *
+   * @see #ON_CONFLICT
+   * @see #ON_DUPLICATE_KEY
+   */
+  @FunctionalInterface
+  public interface UpsertWriter {
+
+    /**
+     * @param sql the SQL built so far
+     * @param keys the columns of the unique index or primary key that conflicts
+     * @param columns the columns to update with the inserted values
+     * @throws IllegalStateException if keys or columns the database needs are missing
+     */
+    void write(StringBuilder sql, Collection<String> keys, Collection<String> columns)
+        throws IllegalStateException;
+  }
+
+  public static final class Builder {
+
+    private String name;
+    private Function<String, String> fieldWrapper;
+    private boolean scrolling;
+    private Integer streamingFetchSize;
+    private Integer maxParameters;
+    private Integer maxPacketSize;
+    private LimitWriter limitWriter = LIMIT_OFFSET;
+    private String rowId;
+    private UpsertWriter upsertWriter;
+
+    private Builder() {
+    }
+
+    public Builder name(String name) {
+      this.name = name;
+      return this;
+    }
+
+    public Builder fieldWrapper(Function<String, String> fieldWrapper) {
+      this.fieldWrapper = fieldWrapper;
+      return this;
+    }
+
+    public Builder scrolling(boolean scrolling) {
+      this.scrolling = scrolling;
+      return this;
+    }
+
+    /**
+     * @param streamingFetchSize the fetch size that makes the driver stream a result, or null if
+     * streaming needs no special fetch size
+     * @return this builder
+     */
+    public Builder streamingFetchSize(Integer streamingFetchSize) {
+      this.streamingFetchSize = streamingFetchSize;
+      return this;
+    }
+
+    /**
+     * @param maxParameters the most parameters a single statement may have, or null if there is no
+     * limit
+     * @return this builder
+     */
+    public Builder maxParameters(Integer maxParameters) {
+      this.maxParameters = maxParameters;
+      return this;
+    }
+
+    /**
+     * @param maxPacketSize the most bytes a single statement may be sent to the database in, or
+     * null if there is no limit
+     * @return this builder
+     */
+    public Builder maxPacketSize(Integer maxPacketSize) {
+      this.maxPacketSize = maxPacketSize;
+      return this;
+    }
+
+    /**
+     * @param limitWriter writes the clause that limits the records of a query,
+     * {@link #LIMIT_OFFSET} by default
+     * @return this builder
+     */
+    public Builder limitWriter(LimitWriter limitWriter) {
+      this.limitWriter = limitWriter;
+      return this;
+    }
+
+    /**
+     * @param rowId the column that identifies each row of every table (SQLite's {@code rowid}),
+     * which limited deletes select the rows to delete by, or null if deletes are limited directly
+     * (MySQL's {@code DELETE ... LIMIT})
+     * @return this builder
+     */
+    public Builder rowId(String rowId) {
+      this.rowId = rowId;
+      return this;
+    }
+
+    /**
+     * @param upsertWriter writes the clause that makes an insert update the records it conflicts
+     * with, or null if the database does not support upserts
+     * @return this builder
+     */
+    public Builder upsertWriter(UpsertWriter upsertWriter) {
+      this.upsertWriter = upsertWriter;
+      return this;
+    }
+
+    public SQLDialect build() {
+      return new SQLDialect(name, fieldWrapper, scrolling, streamingFetchSize, maxParameters,
+          maxPacketSize, limitWriter, rowId, upsertWriter);
+    }
+  }
 }
@@ -1,90 +1,138 @@
 package com.keenant.flow;
 
+import com.keenant.flow.ColumnStore.DoubleStore;
+import com.keenant.flow.ColumnStore.IntStore;
+import com.keenant.flow.ColumnStore.LongStore;
 import com.keenant.flow.exception.DatabaseException;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Spliterator;
-import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
  * An eager cursor that works on databases that don't support scroll insensitivity (SQLite).
+ *
+ * The records are read into memory column by column, with integer, long and double columns kept
+ * as primitives (see {@link ColumnStore}), so the typed non-null getters don't box.
  */
 public class SafeEagerCursor extends EagerCursor {
-  private ResultSetMetaData metaData;
-
-  private List<Object[]> records;
+  private ColumnStore[] columns;
+  private int size;
   private int fieldCount;
-  private Map<String, List<Integer>> labels;
+  private ResultFields fields;
   private int current;
+  private boolean wasNull;
 
   public SafeEagerCursor(PreparedStatement statement, ResultSet resultSet, Runnable releaser) {
-    super(statement, resultSet, releaser);
+    this(statement, resultSet, releaser, null);
   }
 
-  private ResultSetMetaData getMetaData() {
-    if (metaData == null) {
-      try {
-        metaData = resultSet.getMetaData();
-      } catch (SQLException e) {
-        throw new DatabaseException(e);
-      }
-    }
-    return metaData;
+  /**
+   * @param fields the fields of the result, if they are already known (see {@link MetadataCache})
+   */
+  SafeEagerCursor(PreparedStatement statement, ResultSet resultSet, Runnable releaser,
+      ResultFields fields) {
+    super(statement, resultSet, releaser, fields);
+    this.fields = fields;
+  }
+
+  /**
+   * Construct another view of the same records, with its own position. The view has no statement
+   * or result set, as the source's may have been reused by another query since they were closed,
+   * so closing it does nothing.
+   */
+  private SafeEagerCursor(SafeEagerCursor source) {
+    super(null, null, () -> { });
+    this.columns = source.columns;
+    this.size = source.size;
+    this.fieldCount = source.fieldCount;
+    this.fields = source.fields;
+  }
+
+  /**
+   * @return another view of the records, which must all have been read
+   * @see #populateAndClose()
+   */
+  SafeEagerCursor view() {
+    return new SafeEagerCursor(this);
+  }
+
+  /**
+   * @return the number of records
+   */
+  int size() {
+    return size;
   }
 
   void populateAndClose() {
-    if (records == null || labels == null) {
-      Map<String, List<Integer>> labels = new HashMap<>();
-      List<Object[]> records = new ArrayList<>();
-      int fieldCount = 0;
-
-      try {
-        // Labels
-        for (int i = 1; i <= getMetaData().getColumnCount(); i++) {
-          String label = getMetaData().getColumnLabel(i);
-          List<Integer> existingIndexes = labels.getOrDefault(label, new ArrayList<>());
-          existingIndexes.add(i);
-          labels.put(label, existingIndexes);
-          fieldCount++;
+    if (columns == null) {
+      append(resultSet);
+      complete();
+      close();
+    }
+  }
+
+  /**
+   * Read every remaining record of a result set into this cursor, then close the result set. The
+   * result set must have the same fields as any appended before it.
+   *
+   * @param resultSet the result set
+   */
+  void append(ResultSet resultSet) {
+    try {
+      if (columns == null) {
+        if (fields == null) {
+          fields = ResultFields.of(resultSet.getMetaData());
         }
 
-        // Records
-        while (resultSet.next()) {
-          Object[] record = new Object[getMetaData().getColumnCount()];
-          for (int i = 0; i < getMetaData().getColumnCount(); i++) {
-            record[i] = resultSet.getObject(i + 1);
-          }
-          records.add(record);
+        ColumnStore[] columns = new ColumnStore[fields.size()];
+        for (int i = 1; i <= columns.length; i++) {
+          columns[i - 1] = ColumnStore.of(fields.type(i));
         }
-      } catch (SQLException e) {
-        throw new DatabaseException(e);
+
+        this.columns = columns;
+        this.fieldCount = columns.length;
       }
 
-      this.records = records;
-      this.labels = labels;
-      this.fieldCount = fieldCount;
-      close();
+      // Records
+      while (resultSet.next()) {
+        for (int i = 0; i < fieldCount; i++) {
+          columns[i] = columns[i].add(resultSet.getObject(i + 1));
+        }
+        size++;
+      }
+
+      resultSet.close();
+    } catch (SQLException e) {
+      throw new DatabaseException(e);
+    }
+  }
+
+  /**
+   * Release the spare capacity left over from reading records, once they have all been appended.
+   */
+  void complete() {
+    for (ColumnStore column : columns) {
+      column.trim();
     }
   }
 
   private boolean hasRecord(int record) {
-    return record >= 1 && record <= records.size();
+    return record >= 1 && record <= size;
   }
 
-  private Object[] getCurrentRecord() {
-    return records.get(current - 1);
+  private ColumnStore getColumn(int index) throws NoSuchElementException {
+    if (!hasField(index) || !hasRecord(current)) {
+      throw new NoSuchElementException();
+    }
+    return columns[index - 1];
   }
 
   @Override
@@ -108,7 +156,7 @@ public class SafeEagerCursor extends EagerCursor {
     if (!hasRecord(1)) {
       throw new NoSuchElementException();
     }
-    current = records.size();
+    current = size;
   }
 
   @Override
@@ -134,37 +182,127 @@ public class SafeEagerCursor extends EagerCursor {
     return index >= 1 && index <= fieldCount;
   }
 
+  @Override
+  public int getFieldCount() {
+    return fieldCount;
+  }
+
+  @Override
+  ResultFields fields() {
+    return fields;
+  }
+
   @Override
   public boolean hasField(String label) throws IllegalArgumentException {
-    return labels.containsKey(label);
+    return fields.index(label) != null;
   }
 
   @Override
   public int getFieldIndex(String label) throws IllegalArgumentException, NoSuchElementException {
-    List<Integer> indexes = labels.get(label);
     if (label == null)
       throw new IllegalArgumentException("Label cannot be null");
-    if (indexes == null)
+    Integer index = fields.index(label);
+    if (index == null)
       throw new NoSuchElementException();
-    if (indexes.size() > 1)
+    if (fields.isAmbiguous(label))
       throw new IllegalArgumentException("Label maps to multiple indexes");
-    return labels.get(label).get(0);
+    return index;
   }
 
   @Override
   public String getFieldLabel(int index) throws NoSuchElementException {
-    for (String label : labels.keySet()) {
-      int current = getFieldIndex(label);
-      if (current == index) {
-        return label;
-      }
+    if (!hasField(index)) {
+      throw new NoSuchElementException();
     }
-    throw new NoSuchElementException();
+    return fields.label(index);
   }
 
   @Override
   public Optional<Object> get(int index) throws NoSuchElementException {
-    return Optional.ofNullable(getCurrentRecord()[index - 1]);
+    return Optional.ofNullable(getColumn(index).get(current - 1));
+  }
+
+  @Override
+  public int getNonNullInt(int index)
+      throws NoSuchElementException, ClassCastException, IllegalStateException {
+    ColumnStore column = getColumn(index);
+    if (!(column instanceof IntStore)) {
+      return super.getNonNullInt(index);
+    }
+    if (column.isNull(current - 1)) {
+      throw new IllegalStateException();
+    }
+    return column.intValue(current - 1);
+  }
+
+  @Override
+  public long getNonNullLong(int index)
+      throws NoSuchElementException, ClassCastException, IllegalStateException {
+    ColumnStore column = getColumn(index);
+    if (!(column instanceof LongStore)) {
+      return super.getNonNullLong(index);
+    }
+    if (column.isNull(current - 1)) {
+      throw new IllegalStateException();
+    }
+    return column.longValue(current - 1);
+  }
+
+  @Override
+  public double getNonNullDouble(int index)
+      throws NoSuchElementException, ClassCastException, IllegalStateException {
+    ColumnStore column = getColumn(index);
+    if (!(column instanceof DoubleStore)) {
+      return super.getNonNullDouble(index);
+    }
+    if (column.isNull(current - 1)) {
+      throw new IllegalStateException();
+    }
+    return column.doubleValue(current - 1);
+  }
+
+  @Override
+  public int getIntValue(int index) throws NoSuchElementException, ClassCastException {
+    ColumnStore column = getColumn(index);
+    wasNull = column.isNull(current - 1);
+    return column.intValue(current - 1);
+  }
+
+  @Override
+  public long getLongValue(int index) throws NoSuchElementException, ClassCastException {
+    ColumnStore column = getColumn(index);
+    wasNull = column.isNull(current - 1);
+    return column.longValue(current - 1);
+  }
+
+  @Override
+  public double getDoubleValue(int index) throws NoSuchElementException, ClassCastException {
+    ColumnStore column = getColumn(index);
+    wasNull = column.isNull(current - 1);
+    return column.doubleValue(current - 1);
+  }
+
+  @Override
+  public boolean wasNull() {
+    return wasNull;
+  }
+
+  @Override
+  public Row detach() throws NoSuchElementException {
+    return new Row(fields, toArray());
+  }
+
+  @Override
+  public Object[] toArray() throws NoSuchElementException {
+    if (!hasRecord(current)) {
+      throw new NoSuchElementException();
+    }
+
+    Object[] values = new Object[fieldCount];
+    for (int i = 0; i < fieldCount; i++) {
+      values[i] = columns[i].get(current - 1);
+    }
+    return values;
   }
 
   @Override
@@ -181,10 +319,17 @@ public class SafeEagerCursor extends EagerCursor {
     return this;
   }
 
+  /**
+   * Stream the remaining records. The stream is sized, and can be split into ranges of records
+   * that are each read through their own view of this cursor, so it can be made parallel with
+   * {@link Stream#parallel()}. A sequential stream moves this cursor itself.
+   *
+   * @return the stream of records
+   */
   @Override
   public Stream<Cursor> stream() {
     Stream<Cursor> stream = StreamSupport
-        .stream(Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED), false);
+        .stream(new RecordSpliterator(this, current + 1, size), false);
     stream = stream.onClose(this::close);
     return stream;
   }
@@ -194,6 +339,76 @@ public class SafeEagerCursor extends EagerCursor {
     return new CursorIterator();
   }
 
+  @Override
+  public void cancel() {
+    if (statement != null) {
+      super.cancel();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (resultSet != null) {
+      super.close();
+    }
+  }
+
+  /**
+   * Visits a range of records, moving a cursor to each. A split takes the first half of the
+   * range, with a new view of the records.
+   */
+  private static class RecordSpliterator implements Spliterator<Cursor> {
+    private final SafeEagerCursor cursor;
+    private int next;
+    private final int last;
+
+    private RecordSpliterator(SafeEagerCursor cursor, int next, int last) {
+      this.cursor = cursor;
+      this.next = next;
+      this.last = last;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Cursor> action) {
+      if (next > last) {
+        return false;
+      }
+      cursor.current = next++;
+      action.accept(cursor);
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Cursor> action) {
+      while (next <= last) {
+        cursor.current = next++;
+        action.accept(cursor);
+      }
+    }
+
+    @Override
+    public Spliterator<Cursor> trySplit() {
+      int middle = (next + last) >>> 1;
+      if (middle <= next) {
+        return null;
+      }
+
+      RecordSpliterator prefix = new RecordSpliterator(new SafeEagerCursor(cursor), next, middle - 1);
+      next = middle;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return Math.max(last - next + 1, 0);
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+  }
+
   private class CursorIterator implements Iterator<Cursor> {
 
     @Override
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -18,6 +19,8 @@ public class Select extends AbstractExp {
   private Collection<JoinExp> joins;
   private ListExp groups;
   private Filter having;
+  private Long limit;
+  private Long offset;
 
   public Select(Exp table, ListExp fields) {
     this.table = table;
@@ -28,9 +31,11 @@ public class Select extends AbstractExp {
     Select select = new Select(table, fields);
     select.filter = filter; // immutable
     select.order = order;
-    select.joins = new ArrayList<>(joins);
+    select.joins = joins == null ? null : new ArrayList<>(joins);
     select.groups = groups;
     select.having = having;
+    select.limit = limit;
+    select.offset = offset;
     return select;
   }
 
@@ -74,63 +79,95 @@ public class Select extends AbstractExp {
     return this;
   }
 
+  /**
+   * Limit the number of records, so the database stops once it has found them. Without an order,
+   * which records are returned is up to the database.
+   *
+   * @param limit the most records to return
+   * @return this select
+   * @throws IllegalArgumentException if the limit is negative
+   * @see SQLDialect#limit(StringBuilder, List, Long, Long)
+   */
+  public Select limit(long limit) throws IllegalArgumentException {
+    if (limit < 0) {
+      throw new IllegalArgumentException("Limit must not be negative");
+    }
+    this.limit = limit;
+    return this;
+  }
+
+  /**
+   * Skip records before the first one returned. The database still reads the skipped records, so
+   * deep offsets get slower, see {@link #paginate(DatabaseContext, SQLDialect, int, Column[])}.
+   *
+   * @param offset the number of records to skip
+   * @return this select
+   * @throws IllegalArgumentException if the offset is negative
+   */
+  public Select offset(long offset) throws IllegalArgumentException {
+    if (offset < 0) {
+      throw new IllegalArgumentException("Offset must not be negative");
+    }
+    this.offset = offset;
+    return this;
+  }
+
   @Override
   public QueryPart build(SQLDialect dialect) {
-    QueryPart tablePart = table.build(dialect);
-    QueryPart fieldsPart = fields == null ? Flow.wildcard().build(dialect) : fields.build(dialect);
-    QueryPart filterPart = filter == null ? null : filter.build(dialect);
-    QueryPart groupPart = groups == null ? null : groups.build(dialect);
-    QueryPart havingPart = having == null ? null : having.build(dialect);
-    QueryPart orderPart = order == null ? null : order.build(dialect);
-
-    StringBuilder sql = new StringBuilder();
-    List<Object> params = new ArrayList<>();
+    return QueryPart.of(this, dialect);
+  }
 
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
     sql.append("SELECT ");
 
-    sql.append(fieldsPart.getSql());
-    params.addAll(fieldsPart.getParams());
+    if (fields == null) {
+      Flow.wildcard().build(dialect, sql, params);
+    } else {
+      fields.build(dialect, sql, params);
+    }
 
     sql.append(" FROM ");
-
-    sql.append(tablePart.getSql());
-    params.addAll(tablePart.getParams());
+    table.build(dialect, sql, params);
 
     if (joins != null) {
-      joins.stream().map(j -> j.build(dialect)).forEach(joinPart -> {
-        sql.append(" ");
-        sql.append(joinPart.getSql());
-        params.addAll(joinPart.getParams());
-      });
+      for (JoinExp join : joins) {
+        sql.append(' ');
+        join.build(dialect, sql, params);
+      }
     }
 
-    if (filterPart != null) {
+    if (filter != null) {
       sql.append(" WHERE ");
-
-      sql.append(filterPart.getSql());
-      params.addAll(filterPart.getParams());
+      filter.build(dialect, sql, params);
     }
 
-    if (groupPart != null) {
+    if (groups != null) {
       sql.append(" GROUP BY ");
-      sql.append(groupPart.getSql());
-      params.addAll(groupPart.getParams());
+      groups.build(dialect, sql, params);
     }
 
-    if (havingPart != null) {
+    if (having != null) {
       sql.append(" HAVING ");
-      sql.append(havingPart.getSql());
-      params.addAll(havingPart.getParams());
+      having.build(dialect, sql, params);
     }
 
-    if (orderPart != null) {
+    if (order != null) {
       sql.append(" ORDER BY ");
-
-      sql.append(orderPart.getSql());
-      params.addAll(orderPart.getParams());
+      order.build(dialect, sql, params);
     }
 
-    return new QueryPart(sql.toString(), params);
+    dialect.limit(sql, params, limit, offset);
+  }
+
+  /**
+   * Build this query once, so it can be executed repeatedly with new values for its slots.
+   *
+   * @param dialect the SQL dialect to use
+   * @return the compiled query
+   */
+  public CompiledQuery compile(SQLDialect dialect) {
+    return new CompiledQuery(build(dialect));
   }
 
   private Result execute(DatabaseContext database, SQLDialect dialect, FetchConfig config) {
@@ -141,6 +178,31 @@ public class Select extends AbstractExp {
     return database.fetch(build(dialect));
   }
 
+  /**
+   * Fetch the records through the database's result cache.
+   *
+   * @param database the database
+   * @param dialect the SQL dialect to use
+   * @return the cursor
+   * @see DatabaseContext#fetchCached(String, Collection)
+   */
+  public EagerCursor fetchCached(DatabaseContext database, SQLDialect dialect) {
+    return database.fetchCached(build(dialect));
+  }
+
+  /**
+   * Fetch the records on the database's executor. The query is built before this returns, so it
+   * can be changed afterwards without affecting the fetch.
+   *
+   * @param database the database
+   * @param dialect the SQL dialect to use
+   * @return the future cursor
+   * @see DatabaseContext#async(java.util.function.Supplier)
+   */
+  public CompletableFuture<EagerCursor> fetchAsync(DatabaseContext database, SQLDialect dialect) {
+    return database.fetchAsync(build(dialect));
+  }
+
   public Stream<Cursor> stream(DatabaseContext database, SQLDialect dialect) {
     return fetch(database, dialect).stream();
   }
@@ -152,4 +214,112 @@ public class Select extends AbstractExp {
   public Cursor fetchLazy(DatabaseContext database, SQLDialect dialect) {
     return database.fetchLazy(build(dialect));
   }
+
+  public Cursor fetchLazy(DatabaseContext database, SQLDialect dialect, FetchConfig config) {
+    return database.fetchLazy(config, build(dialect));
+  }
+
+  /**
+   * Publish the records of this query, read lazily on the database's executor as subscribers
+   * request them. The query is built before this returns, and fetched again for each subscriber.
+   *
+   * @param database the database
+   * @param dialect the SQL dialect to use
+   * @return the publisher of detached records
+   * @see RecordPublisher
+   */
+  public RecordPublisher<Record> publisher(DatabaseContext database, SQLDialect dialect) {
+    QueryPart part = build(dialect);
+    return RecordPublisher.of(() -> database.fetchLazy(part), database.getExecutor());
+  }
+
+  /**
+   * Publish the records of this query in batches, each requested item being a list of up to
+   * {@code size} records.
+   *
+   * @param size the number of records per batch
+   * @throws IllegalArgumentException if the size isn't positive
+   * @see #publisher(DatabaseContext, SQLDialect)
+   */
+  public RecordPublisher<List<Record>> batchPublisher(DatabaseContext database, SQLDialect dialect,
+      int size) throws IllegalArgumentException {
+    QueryPart part = build(dialect);
+    return RecordPublisher.batched(() -> database.fetchLazy(part), size, database.getExecutor());
+  }
+
+  /**
+   * Read the records of this query a page at a time, by keyset (seek) pagination. The records are
+   * ordered by the keys, ascending, instead of by this query's order (and without its limit or
+   * offset), and each page after the first starts after the keys of the last record of the page
+   * before, with {@code WHERE (k1, k2) > (?, ?)} rather than an offset. Deep pages then cost no
+   * more than the first, given an index on the keys.
+   *
+   * The keys must be unique together, never null, and selected under their own names. Records
+   * added or removed between pages are seen or missed as they fall before or after the current
+   * key, but no record is read twice.
+   *
+   * @param database the database
+   * @param dialect the SQL dialect to use
+   * @param pageSize the most records per page
+   * @param keys the columns to order and seek by
+   * @return the stream of pages of detached records, each fetched as the stream reaches it
+   * @throws IllegalArgumentException if there are no keys or the page size isn't positive
+   */
+  public Stream<List<Record>> paginate(DatabaseContext database, SQLDialect dialect, int pageSize,
+      Column<?>... keys) throws IllegalArgumentException {
+    List<Exp> order = new ArrayList<>(keys.length);
+    for (Column<?> key : keys) {
+      order.add(key.orderAsc());
+    }
+
+    Select ordered = cpy();
+    ordered.order = new ListExp(order);
+    ordered.limit = null;
+    ordered.offset = null;
+    return new KeysetPagination(ordered, Arrays.asList(keys), pageSize).stream(database, dialect);
+  }
+
+  /**
+   * Read the records of this query in parallel. The range of a numeric key is split into
+   * partitions, and each partition is read on its own thread and connection, so the connector
+   * should provide at least as many connections as there are partitions (plus one for records with
+   * a null key).
+   *
+   * If ordered, the records of each partition come after those of the partitions with lower keys,
+   * in the order of the query, so a query ordered by the key ascending gives the same order as it
+   * would unpartitioned. Otherwise records come in whatever order they are read.
+   *
+   * The records are copied out of their cursors, and the stream should be closed to stop reading
+   * if it is not read to the end.
+   *
+   * @param database the database
+   * @param dialect the SQL dialect to use
+   * @param key the key to partition by
+   * @param partitions the number of key ranges
+   * @param ordered true to keep the records in partition order
+   * @return the stream of records
+   * @throws IllegalArgumentException if the number of partitions is not positive
+   * @throws IllegalStateException if the query is grouped or limited
+   */
+  public Stream<Record> scan(DatabaseContext database, SQLDialect dialect,
+      Column<? extends Number> key, int partitions, boolean ordered)
+      throws IllegalArgumentException, IllegalStateException {
+    if (groups != null || having != null) {
+      throw new IllegalStateException("Grouped queries cannot be partitioned");
+    }
+    if (limit != null || offset != null) {
+      throw new IllegalStateException("Limited queries cannot be partitioned");
+    }
+
+    Select bounds = new Select(table, new ListExp(Flow.min(key), Flow.max(key)));
+    bounds.filter = filter;
+    bounds.joins = joins;
+
+    return new PartitionedScan(this, key, partitions, ordered).stream(database, dialect, bounds);
+  }
+
+  public Stream<Record> scan(DatabaseContext database, SQLDialect dialect,
+      Column<? extends Number> key, int partitions) {
+    return scan(database, dialect, key, partitions, false);
+  }
 }
@@ -2,7 +2,10 @@ package com.keenant.flow;
 
 import com.keenant.flow.exception.DatabaseException;
 import com.keenant.flow.exp.functions.ListExp;
+import com.keenant.flow.jdbc.FetchConfig;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 public class SelectScoped implements QueryPartBuilder {
@@ -32,10 +35,28 @@ public class SelectScoped implements QueryPartBuilder {
     return select.build(dialect);
   }
 
+  public CompiledQuery compile() {
+    return select.compile(dialect);
+  }
+
   public EagerCursor fetch() {
     return select.fetch(database, dialect);
   }
 
+  /**
+   * @see Select#fetchCached(DatabaseContext, SQLDialect)
+   */
+  public EagerCursor fetchCached() {
+    return select.fetchCached(database, dialect);
+  }
+
+  /**
+   * @see Select#fetchAsync(DatabaseContext, SQLDialect)
+   */
+  public CompletableFuture<EagerCursor> fetchAsync() {
+    return select.fetchAsync(database, dialect);
+  }
+
   public Stream<Cursor> stream() {
     return fetch().stream();
   }
@@ -44,10 +65,47 @@ public class SelectScoped implements QueryPartBuilder {
     return select.fetchLazy(database, dialect);
   }
 
+  public Cursor fetchLazy(FetchConfig config) throws DatabaseException {
+    return select.fetchLazy(database, dialect, config);
+  }
+
   public Stream<Cursor> streamLazy() {
     return fetchLazy().stream();
   }
 
+  /**
+   * @see Select#publisher(DatabaseContext, SQLDialect)
+   */
+  public RecordPublisher<Record> publisher() {
+    return select.publisher(database, dialect);
+  }
+
+  /**
+   * @see Select#batchPublisher(DatabaseContext, SQLDialect, int)
+   */
+  public RecordPublisher<List<Record>> batchPublisher(int size) throws IllegalArgumentException {
+    return select.batchPublisher(database, dialect, size);
+  }
+
+  /**
+   * @see Select#paginate(DatabaseContext, SQLDialect, int, Column[])
+   */
+  public Stream<List<Record>> paginate(int pageSize, Column<?>... keys)
+      throws IllegalArgumentException {
+    return select.paginate(database, dialect, pageSize, keys);
+  }
+
+  /**
+   * @see Select#scan(DatabaseContext, SQLDialect, Column, int, boolean)
+   */
+  public Stream<Record> scan(Column<? extends Number> key, int partitions, boolean ordered) {
+    return select.scan(database, dialect, key, partitions, ordered);
+  }
+
+  public Stream<Record> scan(Column<? extends Number> key, int partitions) {
+    return select.scan(database, dialect, key, partitions);
+  }
+
   public SelectScoped cpy() {
     return new SelectScoped(select.cpy(), database, dialect);
   }
@@ -87,6 +145,22 @@ public class SelectScoped implements QueryPartBuilder {
     return this;
   }
 
+  /**
+   * @see Select#limit(long)
+   */
+  public SelectScoped limit(long limit) throws IllegalArgumentException {
+    select.limit(limit);
+    return this;
+  }
+
+  /**
+   * @see Select#offset(long)
+   */
+  public SelectScoped offset(long offset) throws IllegalArgumentException {
+    select.offset(offset);
+    return this;
+  }
+
   public EagerCursor fetch(DatabaseContext database, SQLDialect dialect) {
     return select.fetch(database, dialect);
   }
@@ -107,4 +181,9 @@ public class SelectScoped implements QueryPartBuilder {
   public QueryPart build(SQLDialect dialect) {
     return select.build(dialect);
   }
+
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    select.build(dialect, sql, params);
+  }
 }
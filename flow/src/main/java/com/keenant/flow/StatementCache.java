@@ -0,0 +1,257 @@
+package com.keenant.flow;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the prepared statements of a single pooled connection open after they are closed, so
+ * that preparing the same SQL again re-uses them. The least recently used statement is closed
+ * once the cache is full.
+ *
+ * A statement is taken out of the cache while it is in use, and put back when it is closed. A
+ * cache is only ever used by the thread that borrowed its connection, so it is not thread safe.
+ * The one exception is {@link Statement#cancel()}, which may be called from any thread.
+ */
+class StatementCache {
+
+  private final int capacity;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final Map<StatementKey, PreparedStatement> statements;
+
+  StatementCache(int capacity, LongAdder hits, LongAdder misses) {
+    this.capacity = capacity;
+    this.hits = hits;
+    this.misses = misses;
+    this.statements = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Prepare a statement on a connection, re-using a cached one if possible.
+   *
+   * @param connection the physical connection
+   * @param owner the connection handed out to callers, returned by the statement's
+   * {@link Statement#getConnection()}
+   * @param key the statement key
+   * @return the statement, which returns to the cache when closed
+   * @throws SQLException if the statement could not be prepared
+   */
+  PreparedStatement prepare(Connection connection, Connection owner, StatementKey key)
+      throws SQLException {
+    PreparedStatement statement = statements.remove(key);
+
+    if (statement == null || statement.isClosed()) {
+      misses.increment();
+      statement = key.prepare(connection);
+    } else {
+      hits.increment();
+    }
+
+    CachedStatement handler = new CachedStatement(key, statement, owner);
+    return (PreparedStatement) Proxy.newProxyInstance(
+        PreparedStatement.class.getClassLoader(),
+        new Class<?>[] {PreparedStatement.class},
+        handler
+    );
+  }
+
+  /**
+   * Close every cached statement.
+   */
+  void closeAll() {
+    List<PreparedStatement> closing = new ArrayList<>(statements.values());
+    statements.clear();
+    closing.forEach(StatementCache::closeQuietly);
+  }
+
+  private void checkIn(StatementKey key, PreparedStatement statement) {
+    try {
+      statement.clearParameters();
+      statement.clearBatch();
+    } catch (SQLException e) {
+      closeQuietly(statement);
+      return;
+    }
+
+    // The same SQL may have been prepared twice while the first was still in use
+    if (statements.containsKey(key)) {
+      closeQuietly(statement);
+      return;
+    }
+
+    statements.put(key, statement);
+
+    if (statements.size() > capacity) {
+      Map.Entry<StatementKey, PreparedStatement> eldest = statements.entrySet().iterator().next();
+      statements.remove(eldest.getKey());
+      closeQuietly(eldest.getValue());
+    }
+  }
+
+  private static void closeQuietly(Statement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      // Ignore
+    }
+  }
+
+  /**
+   * Invoke a method on the proxied JDBC object, rethrowing whatever it threw.
+   */
+  static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Identifies statements that can be used interchangeably.
+   */
+  static final class StatementKey {
+    private final String sql;
+    private final int type;
+    private final int concurrency;
+    private final int generatedKeys;
+
+    StatementKey(String sql, int type, int concurrency, int generatedKeys) {
+      this.sql = sql;
+      this.type = type;
+      this.concurrency = concurrency;
+      this.generatedKeys = generatedKeys;
+    }
+
+    /**
+     * Construct the key for a call to one of the cacheable {@link Connection} prepareStatement
+     * methods.
+     *
+     * @return the key, or null if the statement should not be cached
+     */
+    static StatementKey of(Method method, Object[] args) {
+      Class<?>[] types = method.getParameterTypes();
+
+      if (types.length == 1) {
+        return new StatementKey((String) args[0], ResultSet.TYPE_FORWARD_ONLY,
+            ResultSet.CONCUR_READ_ONLY, Statement.NO_GENERATED_KEYS);
+      }
+      if (types.length == 2 && types[1] == int.class) {
+        return new StatementKey((String) args[0], ResultSet.TYPE_FORWARD_ONLY,
+            ResultSet.CONCUR_READ_ONLY, (Integer) args[1]);
+      }
+      if (types.length == 3) {
+        return new StatementKey((String) args[0], (Integer) args[1], (Integer) args[2],
+            Statement.NO_GENERATED_KEYS);
+      }
+      return null;
+    }
+
+    @SuppressWarnings("MagicConstant")
+    private PreparedStatement prepare(Connection connection) throws SQLException {
+      if (generatedKeys != Statement.NO_GENERATED_KEYS) {
+        return connection.prepareStatement(sql, generatedKeys);
+      }
+      return connection.prepareStatement(sql, type, concurrency);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof StatementKey)) {
+        return false;
+      }
+      StatementKey other = (StatementKey) o;
+      return type == other.type
+          && concurrency == other.concurrency
+          && generatedKeys == other.generatedKeys
+          && sql.equals(other.sql);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sql, type, concurrency, generatedKeys);
+    }
+  }
+
+  /**
+   * Hands out a cached statement, putting it back in the cache rather than closing it.
+   */
+  private class CachedStatement implements InvocationHandler {
+    private static final int CLOSED = -1;
+
+    private final StatementKey key;
+    private final PreparedStatement statement;
+    private final Connection owner;
+
+    /**
+     * The number of cancels in progress, or {@link #CLOSED} once the statement is closed.
+     */
+    private final AtomicInteger state = new AtomicInteger();
+
+    private CachedStatement(StatementKey key, PreparedStatement statement, Connection owner) {
+      this.key = key;
+      this.statement = statement;
+      this.owner = owner;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "CachedStatement(" + statement + ")";
+        case "close":
+          // Cancelling from another thread must not reach the statement once it is back in the
+          // cache, where the next query could be using it, so one that is being cancelled is
+          // closed for good instead
+          int cancelling = state.getAndSet(CLOSED);
+          if (cancelling == 0) {
+            checkIn(key, statement);
+          } else if (cancelling > 0) {
+            closeQuietly(statement);
+          }
+          return null;
+        case "cancel":
+          // Cancelling is a round trip to the database, so it is done without holding a lock
+          // that would block closing the statement or pin the carrier of a virtual thread
+          if (state.getAndUpdate(count -> count == CLOSED ? CLOSED : count + 1) == CLOSED) {
+            throw new SQLException("Statement is closed");
+          }
+          try {
+            return delegate(statement, method, args);
+          } finally {
+            state.updateAndGet(count -> count == CLOSED ? CLOSED : count - 1);
+          }
+        case "isClosed":
+          return state.get() == CLOSED || statement.isClosed();
+        case "getConnection":
+          return owner;
+        default:
+          if (state.get() == CLOSED) {
+            throw new SQLException("Statement is closed");
+          }
+          return delegate(statement, method, args);
+      }
+    }
+  }
+}
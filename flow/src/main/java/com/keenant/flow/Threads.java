@@ -0,0 +1,77 @@
+package com.keenant.flow;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The default executor for asynchronous queries, and running queries on executors.
+ */
+final class Threads {
+
+  /**
+   * Runs each task on a new virtual thread where the runtime has them (Java 21+), or else on a
+   * cached pool of daemon threads. A task holds its thread for as long as its query runs, which
+   * virtual threads make cheap.
+   */
+  static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+
+  private Threads() {
+  }
+
+  /**
+   * Run a task on an executor. If the future is cancelled before the task finishes, a result that
+   * needs closing (such as a cursor) is closed when the task does finish.
+   *
+   * @param executor the executor
+   * @param task the task
+   * @param abandon run if the task never runs, because the executor rejected it or the future was
+   * cancelled first
+   * @param <T> the type of result
+   * @return the future result of the task
+   */
+  static <T> CompletableFuture<T> async(Executor executor, Supplier<T> task, Runnable abandon) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    try {
+      executor.execute(() -> {
+        if (future.isDone()) {
+          abandon.run();
+          return;
+        }
+        try {
+          T result = task.get();
+          if (!future.complete(result) && result instanceof AutoCloseable) {
+            ((AutoCloseable) result).close();
+          }
+        } catch (Throwable e) {
+          future.completeExceptionally(e);
+        }
+      });
+    } catch (RuntimeException e) {
+      abandon.run();
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  private static Executor createDefaultExecutor() {
+    try {
+      // Looked up by reflection, as this is built for Java 8
+      Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) method.invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Not available, or still a preview feature
+    }
+
+    AtomicInteger count = new AtomicInteger();
+    return Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "flow-async-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+}
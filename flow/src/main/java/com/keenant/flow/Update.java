@@ -0,0 +1,148 @@
+package com.keenant.flow;
+
+import com.keenant.flow.exp.ParamExp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class Update {
+
+  private Exp table;
+  private final Map<String, Exp> values;
+  private Filter filter;
+
+  public Update(Exp table) {
+    this.table = table;
+    this.values = new LinkedHashMap<>();
+  }
+
+  public Update cpy() {
+    Update update = new Update(table);
+    update.values.putAll(values);
+    update.filter = filter; // immutable
+    return update;
+  }
+
+  public Update table(Exp table) {
+    this.table = table;
+    return this;
+  }
+
+  public Update set(String field, Exp value) {
+    values.put(field, value);
+    return this;
+  }
+
+  public Update set(String field, Object value) {
+    return set(field, new ParamExp(value));
+  }
+
+  public <T> Update set(Column<T> column, T value) {
+    return set(column.getName(), value);
+  }
+
+  public Update set(Column<?> column, Exp value) {
+    return set(column.getName(), value);
+  }
+
+  public Update where(Filter filter) {
+    this.filter = this.filter == null ? filter : this.filter.and(filter);
+    return this;
+  }
+
+  public QueryPart build(SQLDialect dialect) {
+    StringBuilder sql = new StringBuilder();
+    List<Object> params = new ArrayList<>();
+    build(dialect, sql, params);
+    return new QueryPart(sql.toString(), params);
+  }
+
+  /**
+   * Append this query to a query that is being built.
+   *
+   * @param dialect the SQL dialect to use
+   * @param sql the SQL built so far
+   * @param params the parameters built so far
+   * @throws IllegalStateException if no values are set
+   */
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params)
+      throws IllegalStateException {
+    if (values.isEmpty()) {
+      throw new IllegalStateException("An update must set at least one value");
+    }
+
+    sql.append("UPDATE ");
+    table.build(dialect, sql, params);
+
+    sql.append(" SET ");
+    for (Map.Entry<String, Exp> entry : values.entrySet()) {
+      sql.append(entry.getKey()).append(" = ");
+      entry.getValue().build(dialect, sql, params);
+      sql.append(", ");
+    }
+    sql.setLength(sql.length() - 2);
+
+    if (filter != null) {
+      sql.append(" WHERE ");
+      filter.build(dialect, sql, params);
+    }
+  }
+
+  /**
+   * Build this query once, so it can be executed repeatedly with new values for its slots.
+   *
+   * @param dialect the SQL dialect to use
+   * @return the compiled query
+   */
+  public CompiledQuery compile(SQLDialect dialect) {
+    return new CompiledQuery(build(dialect));
+  }
+
+  public Result executeAndReturn(DatabaseContext database, SQLDialect dialect) {
+    return database.prepareUpdate(build(dialect)).execute();
+  }
+
+  public void execute(DatabaseContext database, SQLDialect dialect) {
+    executeAndReturn(database, dialect).close();
+  }
+
+  /**
+   * Update the records on the database's executor. The statement is built before this returns,
+   * so the update can be changed afterwards without affecting it.
+   *
+   * @param database the database
+   * @param dialect the SQL dialect to use
+   * @return the future result
+   * @see DatabaseContext#async(java.util.function.Supplier)
+   */
+  public CompletableFuture<Result> executeAsync(DatabaseContext database, SQLDialect dialect) {
+    return database.executeAsync(build(dialect));
+  }
+
+  /**
+   * Execute this update once for each set of values, with JDBC batches of a single prepared
+   * statement. The values are bound to the update's slots, in the order they appear in the SQL,
+   * such as {@code update(users).set(status, slot()).where(id.eq(slot()))}.
+   *
+   * @param database the database
+   * @param dialect the SQL dialect to use
+   * @param values the values of the slots, for each execution
+   * @param batchSize the maximum number of executions sent to the database at once
+   * @return the result
+   * @throws IllegalArgumentException if there are no values, a set of values does not match the
+   * slots, or the batch size is not positive
+   * @see CompiledQuery#executeBatch(DatabaseContext, Collection, int)
+   */
+  public Result executeBatch(DatabaseContext database, SQLDialect dialect,
+      Collection<? extends List<?>> values, int batchSize) throws IllegalArgumentException {
+    return compile(dialect).executeBatch(database, values, batchSize);
+  }
+
+  public Result executeBatch(DatabaseContext database, SQLDialect dialect,
+      Collection<? extends List<?>> values) throws IllegalArgumentException {
+    return executeBatch(database, dialect, values, Insert.DEFAULT_BATCH_SIZE);
+  }
+}
@@ -0,0 +1,107 @@
+package com.keenant.flow;
+
+import com.keenant.flow.exception.DatabaseException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class UpdateScoped implements QueryPartBuilder {
+
+  private final Update update;
+  private final DatabaseContext database;
+  private final SQLDialect dialect;
+
+  private UpdateScoped(Update update, DatabaseContext database, SQLDialect dialect) {
+    this.update = update;
+    this.database = database;
+    this.dialect = dialect;
+  }
+
+  public UpdateScoped(Exp table, DatabaseContext database, SQLDialect dialect) {
+    this(new Update(table), database, dialect);
+  }
+
+  public UpdateScoped cpy() {
+    return new UpdateScoped(update.cpy(), database, dialect);
+  }
+
+  public UpdateScoped table(Exp table) {
+    update.table(table);
+    return this;
+  }
+
+  public UpdateScoped set(String field, Exp value) {
+    update.set(field, value);
+    return this;
+  }
+
+  public UpdateScoped set(String field, Object value) {
+    update.set(field, value);
+    return this;
+  }
+
+  public <T> UpdateScoped set(Column<T> column, T value) {
+    update.set(column, value);
+    return this;
+  }
+
+  public UpdateScoped set(Column<?> column, Exp value) {
+    update.set(column, value);
+    return this;
+  }
+
+  public UpdateScoped where(Filter filter) {
+    update.where(filter);
+    return this;
+  }
+
+  public Result execute() throws DatabaseException {
+    return update.executeAndReturn(database, dialect);
+  }
+
+  /**
+   * @see Update#executeAsync(DatabaseContext, SQLDialect)
+   */
+  public CompletableFuture<Result> executeAsync() {
+    return update.executeAsync(database, dialect);
+  }
+
+  /**
+   * @see Update#executeBatch(DatabaseContext, SQLDialect, Collection, int)
+   */
+  public Result executeBatch(Collection<? extends List<?>> values, int batchSize)
+      throws DatabaseException, IllegalArgumentException {
+    return update.executeBatch(database, dialect, values, batchSize);
+  }
+
+  public Result executeBatch(Collection<? extends List<?>> values)
+      throws DatabaseException, IllegalArgumentException {
+    return update.executeBatch(database, dialect, values);
+  }
+
+  public QueryPart build() {
+    return update.build(dialect);
+  }
+
+  public CompiledQuery compile() {
+    return update.compile(dialect);
+  }
+
+  public DatabaseContext getDatabase() {
+    return database;
+  }
+
+  public SQLDialect getDialect() {
+    return dialect;
+  }
+
+  @Override
+  public QueryPart build(SQLDialect dialect) {
+    return update.build(dialect);
+  }
+
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    update.build(dialect, sql, params);
+  }
+}
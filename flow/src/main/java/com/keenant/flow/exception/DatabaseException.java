@@ -8,6 +8,10 @@ public class DatabaseException extends RuntimeException {
     super(msg);
   }
 
+  public DatabaseException(String msg, Throwable cause) {
+    super(msg, cause);
+  }
+
   public DatabaseException(SQLException e) {
     super("SQL Error: " + e.getErrorCode(), e);
   }
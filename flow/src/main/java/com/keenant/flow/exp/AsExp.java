@@ -4,7 +4,6 @@ import com.keenant.flow.AbstractExp;
 import com.keenant.flow.Exp;
 import com.keenant.flow.QueryPart;
 import com.keenant.flow.SQLDialect;
-import java.util.ArrayList;
 import java.util.List;
 
 public class AsExp extends AbstractExp {
@@ -19,21 +18,16 @@ public class AsExp extends AbstractExp {
 
   @Override
   public QueryPart build(SQLDialect dialect) {
-    String sql = "";
-    List<Object> params = new ArrayList<>();
-
-    QueryPart expPart = exp.build(dialect);
+    return QueryPart.of(this, dialect);
+  }
 
-    sql += expPart.getSql();
-    params.addAll(expPart.getParams());
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    exp.build(dialect, sql, params);
 
     if (as != null) {
-      QueryPart asPart = as.build(dialect);
-
-      sql += " AS " + asPart.getSql();
-      params.addAll(asPart.getParams());
+      sql.append(" AS ");
+      as.build(dialect, sql, params);
     }
-
-    return new QueryPart(sql, params);
   }
 }
@@ -4,7 +4,6 @@ import com.keenant.flow.AbstractExp;
 import com.keenant.flow.Exp;
 import com.keenant.flow.QueryPart;
 import com.keenant.flow.SQLDialect;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -59,19 +58,16 @@ public class FieldExp extends AbstractExp {
 
   @Override
   public QueryPart build(SQLDialect dialect) {
-    String sql = "";
-    List<Object> params = new ArrayList<>();
-
-    QueryPart fieldPart = field.build(dialect);
-    sql += fieldPart.getSql();
-    params.addAll(fieldPart.getParams());
+    return QueryPart.of(this, dialect);
+  }
 
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
     if (qualifier != null) {
-      QueryPart qualifierPart = qualifier.build(dialect);
-      sql = qualifierPart.getSql() + "." + sql;
-      params.addAll(qualifierPart.getParams());
+      qualifier.build(dialect, sql, params);
+      sql.append('.');
     }
 
-    return new QueryPart(sql, params);
+    field.build(dialect, sql, params);
   }
 }
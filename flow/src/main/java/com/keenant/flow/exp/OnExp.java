@@ -5,7 +5,6 @@ import com.keenant.flow.Exp;
 import com.keenant.flow.Filter;
 import com.keenant.flow.QueryPart;
 import com.keenant.flow.SQLDialect;
-import java.util.ArrayList;
 import java.util.List;
 
 public class OnExp extends AbstractExp {
@@ -20,21 +19,16 @@ public class OnExp extends AbstractExp {
 
   @Override
   public QueryPart build(SQLDialect dialect) {
-    String sql = "";
-    List<Object> params = new ArrayList<>();
-
-    QueryPart tablePart = table.build(dialect);
+    return QueryPart.of(this, dialect);
+  }
 
-    sql += tablePart.getSql();
-    params.addAll(tablePart.getParams());
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    table.build(dialect, sql, params);
 
     if (on != null) {
-      QueryPart onPart = on.build(dialect);
-
-      sql += " ON " + onPart.getSql();
-      params.addAll(onPart.getParams());
+      sql.append(" ON ");
+      on.build(dialect, sql, params);
     }
-    
-    return new QueryPart(sql, params);
   }
 }
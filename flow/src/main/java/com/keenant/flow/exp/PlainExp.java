@@ -25,4 +25,10 @@ public class PlainExp extends AbstractExp {
   public QueryPart build(SQLDialect dialect) {
     return part;
   }
+
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    sql.append(part.getSql());
+    params.addAll(part.getParams());
+  }
 }
@@ -0,0 +1,47 @@
+package com.keenant.flow.exp;
+
+import com.keenant.flow.AbstractExp;
+import com.keenant.flow.CompiledQuery;
+import com.keenant.flow.QueryPart;
+import com.keenant.flow.SQLDialect;
+import java.util.List;
+
+/**
+ * A parameter whose value is not known until the query is executed. The value is bound to a
+ * {@link CompiledQuery} each time it is executed.
+ */
+public class SlotExp extends AbstractExp {
+
+  private final String name;
+
+  public SlotExp(String name) {
+    this.name = name;
+  }
+
+  public SlotExp() {
+    this(null);
+  }
+
+  /**
+   * @return the name of this slot, or null if it is only bound by position
+   */
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public QueryPart build(SQLDialect dialect) {
+    return new QueryPart("?", this);
+  }
+
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    sql.append('?');
+    params.add(this);
+  }
+
+  @Override
+  public String toString() {
+    return name == null ? "SlotExp" : "SlotExp(" + name + ")";
+  }
+}
@@ -4,7 +4,6 @@ import com.keenant.flow.AbstractExp;
 import com.keenant.flow.Exp;
 import com.keenant.flow.QueryPart;
 import com.keenant.flow.SQLDialect;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -23,17 +22,18 @@ public class ListExp extends AbstractExp {
 
   @Override
   public QueryPart build(SQLDialect dialect) {
-    StringBuilder sb = new StringBuilder();
-    List<Object> params = new ArrayList<>();
+    return QueryPart.of(this, dialect);
+  }
 
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    boolean first = true;
     for (Exp exp : expressions) {
-      QueryPart part = exp.build(dialect);
-      sb.append(part.getSql());
-      sb.append(", ");
-      params.addAll(part.getParams());
+      if (!first) {
+        sql.append(", ");
+      }
+      exp.build(dialect, sql, params);
+      first = false;
     }
-    sb.delete(sb.length() - 2, sb.length());
-
-    return new QueryPart(sb.toString(), params);
   }
 }
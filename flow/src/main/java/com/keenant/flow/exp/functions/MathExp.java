@@ -4,14 +4,16 @@ import com.keenant.flow.*;
 
 public class MathExp extends AbstractBinaryExp {
   private final Operator operator;
+  private final String format;
 
   public MathExp(Exp child1, Exp child2, Operator operator) {
     super(child1, child2);
     this.operator = operator;
+    this.format = "(%s) " + operator.getSql() + " (%s)";
   }
 
   @Override
   protected String getSqlFormat(SQLDialect dialect) {
-    return "(%s) " + operator.getSql() + " (%s)";
+    return format;
   }
 }
@@ -8,14 +8,16 @@ import com.keenant.flow.jdbc.Order;
 public class OrderExp extends AbstractUnaryExp {
 
   private final Order order;
+  private final String format;
 
   public OrderExp(Exp child, Order order) {
     super(child);
     this.order = order;
+    this.format = "%s " + order.getSql();
   }
 
   @Override
   protected String getSqlFormat(SQLDialect dialect) {
-    return "%s " + order.getSql();
+    return format;
   }
 }
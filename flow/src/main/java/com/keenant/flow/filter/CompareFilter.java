@@ -5,7 +5,6 @@ import com.keenant.flow.Comparator;
 import com.keenant.flow.Exp;
 import com.keenant.flow.QueryPart;
 import com.keenant.flow.SQLDialect;
-import java.util.ArrayList;
 import java.util.List;
 
 public class CompareFilter extends AbstractFilter {
@@ -22,17 +21,15 @@ public class CompareFilter extends AbstractFilter {
 
   @Override
   public QueryPart build(SQLDialect dialect) {
-    QueryPart lhs = leftSide.build(dialect);
-    QueryPart rhs = rightSide.build(dialect);
-
-    String sql = "(" + lhs.getSql() + ")";
-    sql += " " + comparator.getSql() + " ";
-    sql += "(" + rhs.getSql() + ")";
-
-    List<Object> params = new ArrayList<>();
-    params.addAll(lhs.getParams());
-    params.addAll(rhs.getParams());
+    return QueryPart.of(this, dialect);
+  }
 
-    return new QueryPart(sql, params);
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    sql.append('(');
+    leftSide.build(dialect, sql, params);
+    sql.append(") ").append(comparator.getSql()).append(" (");
+    rightSide.build(dialect, sql, params);
+    sql.append(')');
   }
 }
@@ -4,6 +4,7 @@ import com.keenant.flow.AbstractFilter;
 import com.keenant.flow.Exp;
 import com.keenant.flow.QueryPart;
 import com.keenant.flow.SQLDialect;
+import java.util.List;
 
 /**
  * A filter that is simply an expression.
@@ -20,4 +21,9 @@ public class ExpFilter extends AbstractFilter {
   public QueryPart build(SQLDialect dialect) {
     return exp.build(dialect);
   }
+
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    exp.build(dialect, sql, params);
+  }
 }
@@ -0,0 +1,20 @@
+package com.keenant.flow.filter;
+
+import com.keenant.flow.AbstractUnaryFilter;
+import com.keenant.flow.Filter;
+import com.keenant.flow.SQLDialect;
+
+public class NullFilter extends AbstractUnaryFilter {
+
+  private final boolean not;
+
+  public NullFilter(Filter child, boolean not) {
+    super(child);
+    this.not = not;
+  }
+
+  @Override
+  protected String getSqlFormat(SQLDialect dialect) {
+    return not ? "(%s) IS NOT NULL" : "(%s) IS NULL";
+  }
+}
@@ -22,4 +22,10 @@ public class PlainFilter extends AbstractFilter {
   public QueryPart build(SQLDialect dialect) {
     return part;
   }
+
+  @Override
+  public void build(SQLDialect dialect, StringBuilder sql, List<Object> params) {
+    sql.append(part.getSql());
+    params.addAll(part.getParams());
+  }
 }
@@ -1,5 +1,7 @@
 package com.keenant.flow.jdbc;
 
+import java.util.concurrent.Executor;
+
 /**
  * Configuration for creating and executing an SQL query. Use the {@link #builder()} method to
  * build a new config.
@@ -8,19 +10,51 @@ public final class FetchConfig {
 
   public static final FetchConfig DEFAULT = FetchConfig.builder().build();
 
+  /**
+   * Reads records from the database as they are iterated rather than all at once.
+   */
+  public static final FetchConfig STREAMING = FetchConfig.builder().streaming(true).build();
+
   private final QueryScroll type;
   private final QueryConcurrency concurrency;
   private final Integer timeout;
+  private final Integer fetchSize;
+  private final Integer maxRows;
+  private final boolean streaming;
+  private final Integer readAhead;
+  private final Executor readAheadExecutor;
 
   private FetchConfig(QueryType mode, QueryScroll type, QueryConcurrency concurrency,
-      Integer timeout) {
+      Integer timeout, Integer fetchSize, Integer maxRows, boolean streaming, Integer readAhead,
+      Executor readAheadExecutor) {
     if (mode == null) {
       throw new IllegalArgumentException("Query mode must not be null");
     }
+    if (timeout != null && timeout < 0) {
+      throw new IllegalArgumentException("Timeout must not be negative");
+    }
+    if (fetchSize != null && fetchSize < 0) {
+      throw new IllegalArgumentException("Fetch size must not be negative");
+    }
+    if (maxRows != null && maxRows < 0) {
+      throw new IllegalArgumentException("Max rows must not be negative");
+    }
+    if (readAhead != null && readAhead < 1) {
+      throw new IllegalArgumentException("Read ahead must be positive");
+    }
 
     this.type = type == null ? QueryScroll.FORWARD_ONLY : type;
     this.concurrency = concurrency == null ? QueryConcurrency.READ_ONLY : concurrency;
     this.timeout = timeout;
+    this.fetchSize = fetchSize;
+    this.maxRows = maxRows;
+    this.streaming = streaming;
+    this.readAhead = readAhead;
+    this.readAheadExecutor = readAheadExecutor;
+
+    if (streaming && this.type != QueryScroll.FORWARD_ONLY) {
+      throw new IllegalArgumentException("Streaming requires a forward only query");
+    }
   }
 
   public QueryScroll getType() {
@@ -31,10 +65,51 @@ public final class FetchConfig {
     return concurrency;
   }
 
+  /**
+   * @return the query timeout in seconds, or null for the database context's default timeout
+   */
   public Integer getTimeout() {
     return timeout;
   }
 
+  /**
+   * @return the number of records to fetch from the database at a time, or null to let the driver
+   * decide
+   */
+  public Integer getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * @return the maximum number of records to fetch, or null for no limit
+   */
+  public Integer getMaxRows() {
+    return maxRows;
+  }
+
+  /**
+   * @return true if records are read from the database as they are iterated, rather than buffered
+   * by the driver
+   */
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  /**
+   * @return the number of records a lazy cursor reads ahead on another thread, or null to read
+   * each record as the cursor moves to it
+   */
+  public Integer getReadAhead() {
+    return readAhead;
+  }
+
+  /**
+   * @return the executor that reads records ahead, or null for a new daemon thread per cursor
+   */
+  public Executor getReadAheadExecutor() {
+    return readAheadExecutor;
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -44,6 +119,11 @@ public final class FetchConfig {
     private QueryScroll type;
     private QueryConcurrency concurrency;
     private Integer timeout;
+    private Integer fetchSize;
+    private Integer maxRows;
+    private boolean streaming;
+    private Integer readAhead;
+    private Executor readAheadExecutor;
 
     private Builder() {
     }
@@ -58,13 +138,78 @@ public final class FetchConfig {
       return this;
     }
 
+    /**
+     * @param timeout the query timeout in seconds, or null for the database context's default
+     * timeout
+     * @return this builder
+     */
     public Builder timeout(Integer timeout) {
       this.timeout = timeout;
       return this;
     }
 
+    /**
+     * @param fetchSize the number of records to fetch from the database at a time, or null to let
+     * the driver decide
+     * @return this builder
+     */
+    public Builder fetchSize(Integer fetchSize) {
+      this.fetchSize = fetchSize;
+      return this;
+    }
+
+    /**
+     * @param maxRows the maximum number of records to fetch, or null for no limit
+     * @return this builder
+     */
+    public Builder maxRows(Integer maxRows) {
+      this.maxRows = maxRows;
+      return this;
+    }
+
+    /**
+     * Read records from the database as they are iterated, so a result of any size can be read in
+     * constant memory. This uses the dialect's streaming fetch size where it has one (MySQL), and
+     * requires a forward only query.
+     *
+     * Some drivers (MySQL) cannot run other queries on the connection until the streamed result is
+     * closed.
+     *
+     * @param streaming true to stream records
+     * @return this builder
+     */
+    public Builder streaming(boolean streaming) {
+      this.streaming = streaming;
+      return this;
+    }
+
+    /**
+     * Read records for a lazy cursor on another thread, into a buffer of up to this many records,
+     * so that fetching records from the database overlaps with processing them. The reader waits
+     * while the buffer is full.
+     *
+     * @param readAhead the number of records to read ahead, or null to read each record as the
+     * cursor moves to it
+     * @return this builder
+     */
+    public Builder readAhead(Integer readAhead) {
+      this.readAhead = readAhead;
+      return this;
+    }
+
+    /**
+     * @param readAheadExecutor the executor that reads records ahead, or null for a new daemon
+     * thread per cursor. A reader occupies its thread until its cursor is read or closed.
+     * @return this builder
+     */
+    public Builder readAheadExecutor(Executor readAheadExecutor) {
+      this.readAheadExecutor = readAheadExecutor;
+      return this;
+    }
+
     public FetchConfig build() {
-      return new FetchConfig(QueryType.FETCH, type, concurrency, timeout);
+      return new FetchConfig(QueryType.FETCH, type, concurrency, timeout, fetchSize, maxRows,
+          streaming, readAhead, readAheadExecutor);
     }
   }
 }
@@ -1,7 +1,7 @@
 package com.keenant.flow.jdbc;
 
 /**
- * There are two types of queries in JDBC, which have subtypes.
+ * The types of queries in JDBC, which have subtypes.
  */
 public enum QueryType {
   /**
@@ -12,5 +12,10 @@ public enum QueryType {
   /**
    * Any type of database update such as a delete, create, update.
    */
-  UPDATE
+  UPDATE,
+
+  /**
+   * A database update executed many times with different parameters, as a JDBC batch.
+   */
+  BATCH
 }